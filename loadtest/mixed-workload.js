@@ -0,0 +1,66 @@
+// Carga mixta para comparar hilos de plataforma vs hilos virtuales (ver loadtest/README.md).
+// Uso: k6 run -e BASE_URL=http://localhost:8080 -e EMAIL=admin@test.com -e PASSWORD=secret -e USER_ID=1 -e PRODUCT_ID=1 loadtest/mixed-workload.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+export const options = {
+    scenarios: {
+        browse: {
+            executor: 'ramping-vus',
+            exec: 'browse',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: 200 },
+                { duration: '2m', target: 800 },
+                { duration: '30s', target: 0 },
+            ],
+        },
+        checkout: {
+            executor: 'constant-arrival-rate',
+            exec: 'checkout',
+            rate: 50,
+            timeUnit: '1s',
+            duration: '3m',
+            preAllocatedVUs: 100,
+            maxVUs: 400,
+        },
+    },
+    thresholds: {
+        'http_req_duration{scenario:checkout}': ['p(95)<500'],
+        'http_req_failed': ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    const res = http.post(`${BASE_URL}/users/login`,
+        JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(res, { 'login ok': (r) => r.status === 200 });
+    return { token: res.body };
+}
+
+function authHeaders(token) {
+    return { headers: { 'Content-Type': 'application/json', Authorization: `Bearer ${token}` } };
+}
+
+// Lecturas: catalogo paginado e historial de ordenes (JPA bloqueante)
+export function browse(data) {
+    const params = authHeaders(data.token);
+    check(http.get(`${BASE_URL}/products?size=20`, params), { 'products 200': (r) => r.status === 200 });
+    check(http.get(`${BASE_URL}/orders/user/${__ENV.EMAIL}/history?size=20`, params),
+        { 'history 200': (r) => r.status === 200 });
+}
+
+// Escritura: carrito + orden (transacciones OLTP con locks de fila)
+export function checkout(data) {
+    const params = authHeaders(data.token);
+    const productId = Number(__ENV.PRODUCT_ID || 1);
+    check(http.post(`${BASE_URL}/cart/batch/${__ENV.CART_ID || 1}`,
+        JSON.stringify({ upserts: [{ productId, amount: 1 }] }), params),
+        { 'cart 200': (r) => r.status === 200 });
+    check(http.post(`${BASE_URL}/orders/create/${__ENV.USER_ID || 1}`,
+        JSON.stringify([{ productOrderItem: productId, amountOrderItem: 1 }]), params),
+        { 'order 201/409': (r) => r.status === 201 || r.status === 409 });
+}
@@ -0,0 +1,77 @@
+package com.api.crud.benchmarks;
+
+import com.api.crud.models.entity.CartItem;
+import com.api.crud.repositories.CartDao;
+import com.api.crud.services.CartService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// CartService.getCartTotal: la reduccion anterior sobre todos los CartItem contra la lectura del total
+// desnormalizado de carts. El DAO es un stub en memoria, asi se mide solo el trabajo de la JVM y no la base.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartTotalBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    private List<CartItem> cartItems;
+
+    private CartService cartService;
+
+    @Setup
+    public void setup() {
+        cartItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            CartItem item = new CartItem();
+            item.setIdCartItem((long) i);
+            item.setAmountCartItem(1 + i % 5);
+            item.setPriceCartItem(new BigDecimal("19.99").add(BigDecimal.valueOf(i, 2)));
+            cartItems.add(item);
+        }
+        BigDecimal total = legacyReduction();
+
+        CartDao cartDao = (CartDao) Proxy.newProxyInstance(CartDao.class.getClassLoader(), new Class<?>[]{CartDao.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("findCartTotal")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return Optional.of(total);
+                });
+        cartService = new CartService();
+        ReflectionTestUtils.setField(cartService, "cartDao", cartDao);
+    }
+
+    // Lo que hacia getCartTotal antes: cargar los items y reducir en Java
+    @Benchmark
+    public BigDecimal legacyReduction() {
+        return cartItems.stream()
+                .map(item -> item.getPriceCartItem().multiply(BigDecimal.valueOf(item.getAmountCartItem())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal getCartTotal() {
+        return cartService.getCartTotal(1L);
+    }
+}
@@ -0,0 +1,75 @@
+package com.api.crud.benchmarks;
+
+import com.api.crud.config.JWTUtil;
+import com.api.crud.config.JWTUtil.JwtClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compara el camino anterior del JWTFilter (validateToken + extractUsername + extractRoles,
+// cada uno con su propio parser y clave) contra una sola llamada a parseVerified.
+// Tambien mide la emision y la validacion de tokens por separado.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTUtilBenchmark {
+
+    private JWTUtil jwtUtil;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JWTUtil();
+        token = jwtUtil.generateToken("user@example.com", List.of("CLIENT", "ADMIN"));
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public void legacyTripleParse(Blackhole blackhole) {
+        Jwts.parserBuilder()
+                .setSigningKey(JWTUtil.JWT_KEY)
+                .build()
+                .parseClaimsJws(token);
+        blackhole.consume(Jwts.parser()
+                .setSigningKey(JWTUtil.JWT_KEY)
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject());
+        Claims claims = Jwts.parser()
+                .setSigningKey(JWTUtil.JWT_KEY)
+                .parseClaimsJws(token)
+                .getBody();
+        blackhole.consume(claims.get("roles", List.class));
+    }
+
+    @Benchmark
+    public JwtClaims parseVerified() {
+        return jwtUtil.parseVerified(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("user@example.com", List.of("CLIENT", "ADMIN"));
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+}
@@ -0,0 +1,82 @@
+package com.api.crud.benchmarks;
+
+import com.api.crud.DTO.ProductDTO;
+import com.api.crud.DTO.UserModelDTO;
+import com.api.crud.config.ModelMapperConfig;
+import com.api.crud.mappers.ProductMapper;
+import com.api.crud.mappers.UserMapper;
+import com.api.crud.models.entity.Order;
+import com.api.crud.models.entity.Product;
+import com.api.crud.models.entity.ProductPhysical;
+import com.api.crud.models.entity.Role;
+import com.api.crud.models.entity.UserModel;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ModelMapper (con la configuracion real de ModelMapperConfig) contra los mappers escritos a mano
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private ModelMapper modelMapper;
+
+    private UserModel user;
+
+    private Product product;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapperConfig().modelMapper();
+
+        user = new UserModel(1L, "Ana", "Garcia", "ana@example.com", "1155554444", "$2a$10$hash");
+        user.setRoles(new HashSet<>(List.of(new Role(1L, "CLIENT"), new Role(2L, "ADMIN"))));
+        List<Order> orders = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            Order order = new Order();
+            order.setIdOrder(i);
+            orders.add(order);
+        }
+        user.setOrders(orders);
+
+        product = new ProductPhysical(10L, "Teclado", new BigDecimal("49.90"), "Teclado mecanico",
+                "https://img.example.com/teclado.png", "Perifericos", 120, "Deposito central");
+    }
+
+    @Benchmark
+    public UserModelDTO userModelMapper() {
+        return modelMapper.map(user, UserModelDTO.class);
+    }
+
+    @Benchmark
+    public UserModelDTO userHandWritten() {
+        return UserMapper.toModelDTO(user);
+    }
+
+    @Benchmark
+    public ProductDTO productModelMapper() {
+        return modelMapper.map(product, ProductDTO.class);
+    }
+
+    @Benchmark
+    public ProductDTO productHandWritten() {
+        return ProductMapper.toDTO(product);
+    }
+}
@@ -0,0 +1,98 @@
+package com.api.crud.benchmarks;
+
+import com.api.crud.DTO.OrderDTO;
+import com.api.crud.DTO.OrderItemDTO;
+import com.api.crud.config.ModelMapperConfig;
+import com.api.crud.mappers.OrderMapper;
+import com.api.crud.models.entity.Order;
+import com.api.crud.models.entity.OrderItem;
+import com.api.crud.models.entity.Product;
+import com.api.crud.models.entity.ProductDigital;
+import com.api.crud.models.entity.ProductPhysical;
+import com.api.crud.models.entity.UserModel;
+import com.api.crud.models.enums.OrderStatus;
+import com.api.crud.models.enums.PaymentStatus;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Mapeo de pedidos grandes a OrderDTO: el mapToOrderDTO anterior (ModelMapper por pedido y por item)
+// contra OrderMapper, que es lo que usa OrderService hoy.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({"10", "200", "1000"})
+    private int lines;
+
+    private ModelMapper modelMapper;
+
+    private Order order;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapperConfig().modelMapper();
+        // Con la configuracion por defecto OrderItem -> OrderItemDTO falla por ambiguedad (setOrder matchea
+        // varias propiedades); se ignora para poder medir el camino anterior
+        modelMapper.getConfiguration().setAmbiguityIgnored(true);
+
+        UserModel user = new UserModel(7L, "Ana", "Garcia", "ana@example.com", "1155554444", "$2a$10$hash");
+        order = new Order();
+        order.setIdOrder(1L);
+        order.setUserOrder(user);
+        order.setPurchaseDateOrder(LocalDateTime.now());
+        order.setPaymentStatus(PaymentStatus.PENDING);
+        order.setOrderStatus(OrderStatus.PENDING);
+
+        List<OrderItem> items = new ArrayList<>(lines);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            Product product = i % 2 == 0
+                    ? new ProductPhysical((long) i, "Fisico " + i, new BigDecimal("10.50"), "", "", "Hogar", 100, "")
+                    : new ProductDigital((long) i, "Digital " + i, new BigDecimal("4.99"), "", "", "Software", "", "MIT");
+            OrderItem item = new OrderItem((long) i, order, product, 1 + i % 3, product.getPriceProduct());
+            total = total.add(item.getSubtotal());
+            items.add(item);
+        }
+        order.setItemsOrder(items);
+        order.setTotalOrder(total);
+    }
+
+    @Benchmark
+    public OrderDTO modelMapper() {
+        OrderDTO dto = modelMapper.map(order, OrderDTO.class);
+        dto.setUserId(order.getUserOrder().getId());
+        dto.setUserEmail(order.getUserOrder().getEmail());
+        dto.setItemsOrder(order.getItemsOrder().stream()
+                .map(item -> {
+                    OrderItemDTO itemDTO = modelMapper.map(item, OrderItemDTO.class);
+                    itemDTO.setOrder(item.getOrder().getIdOrder());
+                    itemDTO.setProductOrderItem(item.getProductOrderItem().getIdProduct());
+                    return itemDTO;
+                }).toList());
+        return dto;
+    }
+
+    @Benchmark
+    public OrderDTO orderMapper() {
+        return OrderMapper.toDTO(order);
+    }
+}
@@ -0,0 +1,28 @@
+package com.api.crud.DTO;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.util.ArrayList;
+import java.util.List;
+
+// Cambios en bloque sobre un carrito: se vacia primero (si clear), despues se quitan los productos de removals
+// y por ultimo se fijan las cantidades de upserts (amount <= 0 equivale a quitar el producto)
+public class CartBatchDTO {
+
+    @Getter @Setter
+    private boolean clear;
+
+    @Getter @Setter
+    private List<CartBatchItemDTO> upserts = new ArrayList<>();
+
+    @Getter @Setter
+    private List<Long> removals = new ArrayList<>();
+
+    public CartBatchDTO(boolean clear, List<CartBatchItemDTO> upserts, List<Long> removals) {
+        this.clear = clear;
+        this.upserts = upserts;
+        this.removals = removals;
+    }
+
+    public CartBatchDTO(){}
+}
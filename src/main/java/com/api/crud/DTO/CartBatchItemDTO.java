@@ -0,0 +1,20 @@
+package com.api.crud.DTO;
+
+import lombok.Getter;
+import lombok.Setter;
+
+public class CartBatchItemDTO {
+
+    @Getter @Setter
+    private Long productId;
+
+    @Getter @Setter
+    private int amount;
+
+    public CartBatchItemDTO(Long productId, int amount) {
+        this.productId = productId;
+        this.amount = amount;
+    }
+
+    public CartBatchItemDTO(){}
+}
@@ -2,6 +2,7 @@ package com.api.crud.DTO;
 
 import lombok.Getter;
 import lombok.Setter;
+import java.math.BigDecimal;
 import java.util.List;
 
 public class CartDTO {
@@ -15,6 +16,12 @@ public class CartDTO {
     @Getter @Setter
     private List<CartItemDTO> itemsCart;
 
+    @Getter @Setter
+    private BigDecimal totalCart;
+
+    @Getter @Setter
+    private int itemCount;
+
     public CartDTO(Long idCart, Long userCart, List<CartItemDTO> itemsCart) {
         this.idCart = idCart;
         this.userCart = userCart;
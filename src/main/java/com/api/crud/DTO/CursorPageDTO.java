@@ -0,0 +1,26 @@
+package com.api.crud.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageDTO<T> {
+
+    @Getter @Setter
+    private List<T> items;
+
+    @Getter @Setter
+    private String nextCursor;
+
+    @Getter @Setter
+    private Long total;
+
+    public CursorPageDTO(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public CursorPageDTO(){}
+}
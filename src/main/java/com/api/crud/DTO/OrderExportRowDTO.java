@@ -0,0 +1,64 @@
+package com.api.crud.DTO;
+
+import com.api.crud.models.enums.OrderStatus;
+import com.api.crud.models.enums.PaymentStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Una fila por item de orden, con los datos de la orden repetidos (formato plano para NDJSON/CSV)
+public class OrderExportRowDTO {
+
+    @Getter @Setter
+    private Long idOrder;
+
+    @Getter @Setter
+    private LocalDateTime purchaseDateOrder;
+
+    @Getter @Setter
+    private String userEmail;
+
+    @Getter @Setter
+    private OrderStatus orderStatus;
+
+    @Getter @Setter
+    private PaymentStatus paymentStatus;
+
+    @Getter @Setter
+    private BigDecimal totalOrder;
+
+    @Getter @Setter
+    private Long idOrderItem;
+
+    @Getter @Setter
+    private Long productId;
+
+    @Getter @Setter
+    private String productName;
+
+    @Getter @Setter
+    private int amountOrderItem;
+
+    @Getter @Setter
+    private BigDecimal priceOrderItem;
+
+    public OrderExportRowDTO(Long idOrder, LocalDateTime purchaseDateOrder, String userEmail, OrderStatus orderStatus,
+                             PaymentStatus paymentStatus, BigDecimal totalOrder, Long idOrderItem, Long productId,
+                             String productName, int amountOrderItem, BigDecimal priceOrderItem) {
+        this.idOrder = idOrder;
+        this.purchaseDateOrder = purchaseDateOrder;
+        this.userEmail = userEmail;
+        this.orderStatus = orderStatus;
+        this.paymentStatus = paymentStatus;
+        this.totalOrder = totalOrder;
+        this.idOrderItem = idOrderItem;
+        this.productId = productId;
+        this.productName = productName;
+        this.amountOrderItem = amountOrderItem;
+        this.priceOrderItem = priceOrderItem;
+    }
+
+    public OrderExportRowDTO() {}
+}
@@ -0,0 +1,60 @@
+package com.api.crud.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Timer "dao.query" por clase y metodo de cada @Repository (ej: ProductDaoImp.findProductById).
+// Los histogramas se activan en application.properties (management.metrics.distribution.*).
+@Aspect
+@Component
+public class DaoMetricsAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(DaoMetricsAspect.class);
+
+    private final MeterRegistry meterRegistry;
+
+    // Los Timer se cachean: register() arma el Meter.Id y busca en el registry en cada llamada
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public DaoMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@within(org.springframework.stereotype.Repository)")
+    public Object timeDaoMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        String dao = joinPoint.getTarget().getClass().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timer(dao, method, outcome).record(elapsed, TimeUnit.NANOSECONDS);
+            if (logger.isTraceEnabled()) {
+                logger.trace("{}.{} took {} us ({})", dao, method, elapsed / 1_000, outcome);
+            }
+        }
+    }
+
+    private Timer timer(String dao, String method, String outcome) {
+        return timers.computeIfAbsent(dao + '.' + method + '#' + outcome, key -> Timer.builder("dao.query")
+                .description("Latency of repository methods")
+                .tag("dao", dao)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+}
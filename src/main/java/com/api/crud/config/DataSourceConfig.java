@@ -0,0 +1,44 @@
+package com.api.crud.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Dos pools Hikari: "oltp" (checkout, carrito, login) y "reporting" (listados, exportaciones, sweeper).
+// Los dos parten de spring.datasource.*; cada uno se ajusta con su prefijo hikari (tamano, timeouts,
+// leak detection) y reporting puede apuntar a una replica con reporting.datasource.hikari.jdbc-url.
+// Spring Boot registra las metricas hikaricp.* de cada pool con el tag pool=<pool-name>.
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource oltpDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("reporting.datasource.hikari")
+    public HikariDataSource reportingDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("oltpDataSource") DataSource oltpDataSource,
+                                 @Qualifier("reportingDataSource") DataSource reportingDataSource) {
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                WorkloadRoutingDataSource.Workload.OLTP, oltpDataSource,
+                WorkloadRoutingDataSource.Workload.REPORTING, reportingDataSource));
+        routing.setDefaultTargetDataSource(oltpDataSource);
+        return routing;
+    }
+}
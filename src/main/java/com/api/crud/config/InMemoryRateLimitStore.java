@@ -0,0 +1,73 @@
+package com.api.crud.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Token buckets en una Caffeine (mapa concurrente con expiracion): una clave sin uso durante idle-ttl
+// desaparece sola. Cada bucket se actualiza con compareAndSet, sin locks.
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, Bucket> buckets;
+
+    public InMemoryRateLimitStore(long maxKeys, Duration idleTtl) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTtl)
+                .build();
+    }
+
+    @Override
+    public long tryConsume(String key, int capacity, Duration refillPeriod) {
+        long now = System.nanoTime();
+        return buckets.get(key, k -> new Bucket(capacity, now))
+                .tryConsume(capacity, refillPeriod.toNanos(), now);
+    }
+
+    @Override
+    public long waitTime(String key, int capacity, Duration refillPeriod) {
+        Bucket bucket = buckets.getIfPresent(key);
+        return bucket == null ? 0 : bucket.waitTime(capacity, refillPeriod.toNanos(), System.nanoTime());
+    }
+
+    @Override
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    // Recarga continua: capacity tokens por refillPeriod
+    static final class Bucket {
+
+        private record State(double tokens, long timestamp) {}
+
+        private final AtomicReference<State> state;
+
+        Bucket(int capacity, long now) {
+            this.state = new AtomicReference<>(new State(capacity, now));
+        }
+
+        long tryConsume(int capacity, long refillPeriodNanos, long now) {
+            while (true) {
+                State current = state.get();
+                double tokens = tokens(current, capacity, refillPeriodNanos, now);
+                if (tokens < 1) {
+                    return (long) Math.ceil((1 - tokens) * refillPeriodNanos / capacity);
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.timestamp())))) {
+                    return 0;
+                }
+            }
+        }
+
+        long waitTime(int capacity, long refillPeriodNanos, long now) {
+            double tokens = tokens(state.get(), capacity, refillPeriodNanos, now);
+            return tokens < 1 ? (long) Math.ceil((1 - tokens) * refillPeriodNanos / capacity) : 0;
+        }
+
+        private static double tokens(State current, int capacity, long refillPeriodNanos, long now) {
+            long elapsed = Math.max(0, now - current.timestamp());
+            return Math.min(capacity, current.tokens() + (double) elapsed * capacity / refillPeriodNanos);
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.api.crud.config;
 
-import com.api.crud.models.entity.UserModel;
+import com.api.crud.config.JWTUtil.JwtClaims;
+import com.api.crud.config.TokenPrincipalCache.CachedPrincipal;
 import com.api.crud.repositories.UserDao;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.web.filter.OncePerRequestFilter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,11 +15,9 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import java.io.IOException;
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 public class JWTFilter extends OncePerRequestFilter {
 
@@ -21,36 +25,80 @@ public class JWTFilter extends OncePerRequestFilter {
 
     private UserDao userDao;
 
-    public JWTFilter(JWTUtil jwtUtil, UserDao userDao) {
+    private final TokenPrincipalCache principalCache;
+
+    private final RoleAuthorityCache roleAuthorityCache;
+
+    // Tiempo de autenticacion por request, separado segun el principal salio de la cache, hubo que resolverlo o no habia token
+    private final Timer cacheHitTimer;
+    private final Timer cacheMissTimer;
+    private final Timer noTokenTimer;
+
+    private static final Logger logger = LoggerFactory.getLogger(JWTFilter.class);
+
+    public JWTFilter(JWTUtil jwtUtil, UserDao userDao, TokenPrincipalCache principalCache,
+                     RoleAuthorityCache roleAuthorityCache, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
         this.userDao = userDao;
+        this.principalCache = principalCache;
+        this.roleAuthorityCache = roleAuthorityCache;
+        this.cacheHitTimer = filterTimer(meterRegistry, "hit");
+        this.cacheMissTimer = filterTimer(meterRegistry, "miss");
+        this.noTokenTimer = filterTimer(meterRegistry, "none");
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        long start = System.nanoTime();
+        Timer timer = noTokenTimer;
         String token = getTokenFromRequest(request);
-        if (token != null && jwtUtil.validateToken(token)) {
-            String email = jwtUtil.extractUsername(token);
-
-            Optional<UserModel> optionalUser = userDao.findUserByEmail(email);
-
-            if(optionalUser.isPresent() && optionalUser.get().isActive()) {
-                List<String> roles = jwtUtil.extractRoles(token);
+        if (token != null) {
+            Optional<CachedPrincipal> principal = principalCache.get(token);
+            timer = cacheHitTimer;
+            if (principal.isEmpty()) {
+                principal = resolvePrincipal(token);
+                timer = cacheMissTimer;
+            }
 
+            if (principal.isPresent() && principal.get().active()) {
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(email, null, roles.stream()
-                                .map(SimpleGrantedAuthority::new)
-                                .collect(Collectors.toList()));
+                        new UsernamePasswordAuthenticationToken(principal.get().email(), null,
+                                roleAuthorityCache.authoritiesFor(principal.get().roles()));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-            } else {
+            } else if (principal.isPresent()) {
                 // Si usuario no existe o está inactivo
                 SecurityContextHolder.clearContext();
             }
         }
+        // Solo se mide la autenticacion, no el resto de la cadena
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         filterChain.doFilter(request, response);
     }
 
+    private Optional<CachedPrincipal> resolvePrincipal(String token) {
+        Optional<CachedPrincipal> response = Optional.empty();
+        try {
+            JwtClaims claims = jwtUtil.parseVerified(token);
+            // Los roles vienen en el token: de la base solo hace falta el flag active, sin JOIN a user_roles
+            boolean active = userDao.findActiveFlagByEmail(claims.subject()).orElse(false);
+
+            CachedPrincipal principal = new CachedPrincipal(claims.subject(), claims.roles(), claims.expiration(), active);
+            principalCache.put(token, principal);
+            response = Optional.of(principal);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.info("Error de validación del token: {}", e.getMessage());
+        }
+        return response;
+    }
+
+    private Timer filterTimer(MeterRegistry meterRegistry, String cache) {
+        return Timer.builder("security.jwt.filter")
+                .description("Time spent authenticating the JWT of a request")
+                .tag("cache", cache)
+                .register(meterRegistry);
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         String token = null;
         String bearerToken = request.getHeader("Authorization");
@@ -1,11 +1,16 @@
 package com.api.crud.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
 import java.util.Date;
 import java.util.List;
 
@@ -16,6 +21,14 @@ public class JWTUtil {
 
     public static final String JWT_KEY = "andintheendtheloveyoutakeisequaltotheloveyoumake";
 
+    // jjwt trata las claves String como Base64, se decodifica igual para que los tokens ya emitidos sigan siendo validos
+    private final SecretKey signingKey = new SecretKeySpec(Decoders.BASE64.decode(JWT_KEY), SignatureAlgorithm.HS256.getJcaName());
+
+    // JwtParser es inmutable y thread-safe, se construye una sola vez
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(signingKey)
+            .build();
+
 
     public String generateToken(String username, List<String> roles) {
         return Jwts.builder()
@@ -23,16 +36,22 @@ public class JWTUtil {
                 .claim("roles", roles)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + 30 * 60 * 1000))
-                .signWith(SignatureAlgorithm.HS256, JWT_KEY)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    public JwtClaims parseVerified(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        List<?> roles = claims.get("roles", List.class);
+        return new JwtClaims(
+                claims.getSubject(),
+                roles == null ? List.of() : roles.stream().map(String::valueOf).toList(),
+                claims.getIssuedAt(),
+                claims.getExpiration());
+    }
+
     public String extractUsername(String token) {
-        return Jwts.parser()
-                .setSigningKey(JWT_KEY)
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseVerified(token).subject();
     }
 
     public boolean isTokenExpired(String token) {
@@ -40,23 +59,16 @@ public class JWTUtil {
         return getExpirationDate(token).before(new Date());
     }
 
-    private Date getExpirationDate(String token) {
-        return Jwts.parser()
-                .setSigningKey(JWT_KEY)
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
+    public Date getExpirationDate(String token) {
+        return parseVerified(token).expiration();
     }
 
     public boolean validateToken(String token) {
         boolean isValid = false;
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(JWT_KEY)
-                    .build()
-                    .parseClaimsJws(token);
+            parseVerified(token);
             isValid = true;
-        } catch (Exception e) {
+        } catch (JwtException | IllegalArgumentException e) {
             isValid = false;
             logger.info("Error de validación del token: " + e.getMessage());
         }
@@ -65,16 +77,26 @@ public class JWTUtil {
     }
 
     public List<String> extractRoles(String token) {
-        Claims claims = extractAllClaims(token);
-
-        return claims.get("roles", List.class);
+        return parseVerified(token).roles();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(JWT_KEY)
-                .parseClaimsJws(token)
-                .getBody();
+    public record JwtClaims(String subject, List<String> roles, Date issuedAt, Date expiration) {
+
+        public JwtClaims {
+            roles = roles == null ? List.of() : List.copyOf(roles);
+            issuedAt = issuedAt == null ? null : new Date(issuedAt.getTime());
+            expiration = expiration == null ? null : new Date(expiration.getTime());
+        }
+
+        @Override
+        public Date issuedAt() {
+            return issuedAt == null ? null : new Date(issuedAt.getTime());
+        }
+
+        @Override
+        public Date expiration() {
+            return expiration == null ? null : new Date(expiration.getTime());
+        }
     }
 
-}
\ No newline at end of file
+}
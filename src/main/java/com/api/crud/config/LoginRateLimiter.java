@@ -0,0 +1,96 @@
+package com.api.crud.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Limite de intentos de login por IP y por email, antes de tocar la base y BCrypt.
+// Por IP frena a un origen que prueba muchas cuentas; por email frena a muchos origenes probando la misma cuenta.
+// El bucket por email solo se gasta con credenciales invalidas (recordFailure): si se cobrara cada intento,
+// cualquiera podria bloquear una cuenta ajena mandando logins con su email.
+@Component
+public class LoginRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    private final RateLimitStore store;
+    private final boolean enabled;
+    private final int ipCapacity;
+    private final Duration ipRefillPeriod;
+    private final int emailCapacity;
+    private final Duration emailRefillPeriod;
+    private final Counter allowed;
+    private final Counter limitedByIp;
+    private final Counter limitedByEmail;
+
+    public LoginRateLimiter(RateLimitStore store,
+                            MeterRegistry meterRegistry,
+                            @Value("${security.login.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${security.login.rate-limit.ip-capacity:30}") int ipCapacity,
+                            @Value("${security.login.rate-limit.ip-refill-seconds:60}") long ipRefillSeconds,
+                            @Value("${security.login.rate-limit.email-capacity:10}") int emailCapacity,
+                            @Value("${security.login.rate-limit.email-refill-seconds:900}") long emailRefillSeconds) {
+        this.store = store;
+        this.enabled = enabled;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPeriod = Duration.ofSeconds(ipRefillSeconds);
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPeriod = Duration.ofSeconds(emailRefillSeconds);
+        this.allowed = attempts(meterRegistry, "allowed");
+        this.limitedByIp = attempts(meterRegistry, "limited_ip");
+        this.limitedByEmail = attempts(meterRegistry, "limited_email");
+        Gauge.builder("security.login.rate_limit.keys", store, RateLimitStore::size)
+                .description("Keys tracked by the login rate limiter")
+                .register(meterRegistry);
+    }
+
+    // Devuelve 0 si el intento pasa, o los segundos a esperar (para Retry-After)
+    public long tryAcquire(String ip, String email) {
+        if (!enabled) {
+            return 0;
+        }
+        long waitNanos = store.tryConsume("ip:" + ip, ipCapacity, ipRefillPeriod);
+        if (waitNanos > 0) {
+            limitedByIp.increment();
+            logger.warn("Login rate limit reached for ip {}", ip);
+            return toRetryAfterSeconds(waitNanos);
+        }
+        if (email != null) {
+            waitNanos = store.waitTime(emailKey(email), emailCapacity, emailRefillPeriod);
+            if (waitNanos > 0) {
+                limitedByEmail.increment();
+                logger.warn("Login rate limit reached for email {}", email);
+                return toRetryAfterSeconds(waitNanos);
+            }
+        }
+        allowed.increment();
+        return 0;
+    }
+
+    public void recordFailure(String email) {
+        if (enabled && email != null) {
+            store.tryConsume(emailKey(email), emailCapacity, emailRefillPeriod);
+        }
+    }
+
+    private String emailKey(String email) {
+        return "email:" + email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private Counter attempts(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("security.login.attempts")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
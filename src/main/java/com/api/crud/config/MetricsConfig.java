@@ -0,0 +1,23 @@
+package com.api.crud.config;
+
+import com.api.crud.services.ProductCatalogCache;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Hikari, Hibernate (hibernate.generate_statistics) y los timers HTTP los registra Spring Boot solo;
+// aca se agregan las caches Caffeine propias, que no pasan por el CacheManager de Spring.
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder cacheMetrics(ProductCatalogCache catalogCache, TokenPrincipalCache principalCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, catalogCache.getByIdCache(), "catalog.byId");
+            CaffeineCacheMetrics.monitor(registry, catalogCache.getByNameCache(), "catalog.byName");
+            CaffeineCacheMetrics.monitor(registry, catalogCache.getByCategoryCache(), "catalog.byCategory");
+            CaffeineCacheMetrics.monitor(registry, principalCache.getCache(), "jwt.principals");
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.api.crud.config;
+
+import java.time.Duration;
+
+// Almacen de token buckets por clave. La implementacion local (InMemoryRateLimitStore) alcanza para una
+// instancia; con varias instancias se reemplaza por un bean con backend compartido (Redis, etc.).
+public interface RateLimitStore {
+
+    // Consume un token del bucket de la clave. Devuelve 0 si habia token, o cuanto falta para el proximo
+    long tryConsume(String key, int capacity, Duration refillPeriod);
+
+    // Igual que tryConsume pero sin gastar el token: solo dice cuanto falta si el bucket esta vacio
+    long waitTime(String key, int capacity, Duration refillPeriod);
+
+    long size();
+}
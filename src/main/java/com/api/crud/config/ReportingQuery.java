@@ -0,0 +1,13 @@
+package com.api.crud.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marca metodos de DAO (o clases enteras) de listados y reportes: corren contra el pool "reporting"
+// y no le sacan conexiones al pool del checkout. Ver WorkloadRoutingDataSource y ReportingQueryAspect.
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReportingQuery {
+}
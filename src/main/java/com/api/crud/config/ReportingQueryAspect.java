@@ -0,0 +1,27 @@
+package com.api.crud.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Corre antes que el interceptor de @Transactional del DAO: cuando la transaccion pide la conexion
+// el hilo ya esta marcado como REPORTING
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReportingQueryAspect {
+
+    @Around("@annotation(com.api.crud.config.ReportingQuery) || @within(com.api.crud.config.ReportingQuery)")
+    public Object routeToReporting(ProceedingJoinPoint joinPoint) throws Throwable {
+        WorkloadRoutingDataSource.Workload previous = WorkloadRoutingDataSource.current();
+        WorkloadRoutingDataSource.set(WorkloadRoutingDataSource.Workload.REPORTING);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadRoutingDataSource.set(previous);
+        }
+    }
+}
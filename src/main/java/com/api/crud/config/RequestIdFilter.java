@@ -0,0 +1,55 @@
+package com.api.crud.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+// Primer filtro de la cadena: asigna un requestId (o respeta el X-Request-Id entrante) y lo deja en el MDC,
+// asi cada log del request lo lleva. Al terminar escribe una linea de acceso con la latencia.
+// Del header entrante solo se aceptan [A-Za-z0-9._-]: cualquier otro caracter (saltos de linea, comillas)
+// podria falsear lineas del log o del JSON de logs, y en ese caso se genera uno nuevo.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestIdFilter.class);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+
+        long start = System.nanoTime();
+        MDC.put("requestId", requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long latencyMs = (System.nanoTime() - start) / 1_000_000;
+            MDC.put("latencyMs", String.valueOf(latencyMs));
+            MDC.put("httpMethod", request.getMethod());
+            MDC.put("httpPath", request.getRequestURI());
+            MDC.put("httpStatus", String.valueOf(response.getStatus()));
+            logger.info("{} {} -> {} in {} ms", request.getMethod(), request.getRequestURI(), response.getStatus(), latencyMs);
+            MDC.clear();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.api.crud.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Listas de authorities inmutables y compartidas, una por combinacion de roles. JWTFilter las reutiliza
+// en cada request en vez de armar SimpleGrantedAuthority nuevas. Hay pocas combinaciones (ADMIN, CLIENT, ambas).
+@Component
+public class RoleAuthorityCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleAuthorityCache.class);
+
+    // Indexado por la lista tal como viene en el token: la busqueda no arma ninguna clave nueva
+    private final Map<List<String>, List<GrantedAuthority>> byClaim = new ConcurrentHashMap<>();
+
+    // Indexado por la combinacion ordenada: el mismo conjunto en otro orden comparte la instancia
+    private final Map<List<String>, List<GrantedAuthority>> byCombination = new ConcurrentHashMap<>();
+
+    public List<GrantedAuthority> authoritiesFor(List<String> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return List.of();
+        }
+        return byClaim.computeIfAbsent(List.copyOf(roles), claim ->
+                byCombination.computeIfAbsent(claim.stream().distinct().sorted().toList(), combination ->
+                        combination.stream()
+                                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                                .toList()));
+    }
+
+    public void invalidateAll() {
+        byClaim.clear();
+        byCombination.clear();
+        logger.debug("Role authority cache invalidated");
+    }
+}
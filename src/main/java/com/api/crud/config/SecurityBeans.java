@@ -1,15 +1,28 @@
 package com.api.crud.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
 public class SecurityBeans {
 
+    // Subir el costo no deja a nadie afuera: los hashes viejos se siguen validando y se regeneran en el proximo login
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    // Store local del rate limit de login; definir otro bean RateLimitStore (ej: sobre Redis) lo reemplaza
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @ConditionalOnMissingBean(RateLimitStore.class)
+    public RateLimitStore rateLimitStore(@Value("${security.login.rate-limit.max-keys:100000}") long maxKeys,
+                                         @Value("${security.login.rate-limit.idle-ttl-minutes:30}") long idleTtlMinutes) {
+        return new InMemoryRateLimitStore(maxKeys, Duration.ofMinutes(idleTtlMinutes));
     }
 }
\ No newline at end of file
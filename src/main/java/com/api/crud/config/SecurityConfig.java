@@ -1,6 +1,8 @@
 package com.api.crud.config;
 
 import com.api.crud.repositories.UserDao;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -9,6 +11,9 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.DispatcherTypeRequestMatcher;
 
 
 @Configuration
@@ -17,10 +22,17 @@ public class SecurityConfig {
 
     private final JWTUtil jwtUtil;
     private final UserDao userDao;
+    private final TokenPrincipalCache principalCache;
+    private final RoleAuthorityCache roleAuthorityCache;
+    private final MeterRegistry meterRegistry;
 
-    public SecurityConfig(JWTUtil jwtUtil, UserDao userDao) {
+    public SecurityConfig(JWTUtil jwtUtil, UserDao userDao, TokenPrincipalCache principalCache,
+                          RoleAuthorityCache roleAuthorityCache, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
         this.userDao = userDao;
+        this.principalCache = principalCache;
+        this.roleAuthorityCache = roleAuthorityCache;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -29,16 +41,26 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authorizeRequests ->
                         authorizeRequests
+                                // El dispatch ASYNC del StreamingResponseBody de /orders/export ya paso la autorizacion
+                                // (ADMIN) en el REQUEST original; cualquier otro ASYNC sigue las reglas de abajo
+                                .requestMatchers(new AndRequestMatcher(
+                                        new DispatcherTypeRequestMatcher(DispatcherType.ASYNC),
+                                        new AntPathRequestMatcher("/orders/export"))).permitAll()
+                                // Prometheus va con el resto de /actuator (ADMIN): publica nombres de endpoints, metodos de DAO y
+                                // tamanos de pools. El scraper se autentica con un token de un usuario ADMIN (bearer_token)
+                                .requestMatchers("/actuator/health/**").permitAll()
+                                .requestMatchers("/actuator/**").hasAuthority("ADMIN")
                                 .requestMatchers("/users/**").permitAll()
                                 .requestMatchers("/users/login").permitAll()
                                 .requestMatchers("/admin/**").hasAuthority("ADMIN")
                                 .requestMatchers("/support/**").hasAuthority("SUPPORT")
                                 .requestMatchers("/products/**").hasAnyAuthority("ADMIN", "SUPPORT")
                                 .requestMatchers("/cart/**").hasAnyAuthority("ADMIN", "SUPPORT")
+                                .requestMatchers("/orders/export").hasAuthority("ADMIN")
                                 .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .addFilterBefore(new JWTFilter(jwtUtil, userDao ), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(new JWTFilter(jwtUtil, userDao, principalCache, roleAuthorityCache, meterRegistry), UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
 }
\ No newline at end of file
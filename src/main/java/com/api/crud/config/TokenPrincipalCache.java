@@ -0,0 +1,146 @@
+package com.api.crud.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Cache de tokens ya verificados por JWTFilter, indexada por el SHA-256 del token.
+// Cada entrada vive como maximo ttl-seconds y nunca mas alla de la expiracion del token.
+@Component
+public class TokenPrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenPrincipalCache.class);
+
+    private final Cache<String, CachedPrincipal> cache;
+
+    // Hashes cacheados de cada usuario, para que invalidateUser vaya por clave sin recorrer la cache.
+    // Las entradas salen del indice cuando la cache las desaloja o vencen
+    private final Map<String, Set<String>> hashesByEmail = new ConcurrentHashMap<>();
+
+    public TokenPrincipalCache(@Value("${security.jwt.principal-cache.max-size:10000}") long maxSize,
+                               @Value("${security.jwt.principal-cache.ttl-seconds:30}") long ttlSeconds) {
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+                        long untilTokenExpires = TimeUnit.MILLISECONDS.toNanos(
+                                value.expiration().getTime() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(ttlNanos, untilTokenExpires));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                // El listener corre en el hilo que desaloja: el indice no queda atras de la cache
+                .executor(Runnable::run)
+                .removalListener((String key, CachedPrincipal value, RemovalCause cause) -> {
+                    if (key != null && value != null && cause != RemovalCause.REPLACED) {
+                        unindex(value.email(), key);
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public Optional<CachedPrincipal> get(String token) {
+        return Optional.ofNullable(cache.getIfPresent(digest(token)));
+    }
+
+    // Primero la cache y despues el indice: si el listener de una entrada vieja corre en el medio, ve la nueva y no la saca
+    public void put(String token, CachedPrincipal principal) {
+        String hash = digest(token);
+        cache.put(hash, principal);
+        hashesByEmail.compute(emailKey(principal.email()), (email, hashes) -> {
+            Set<String> updated = hashes != null ? hashes : ConcurrentHashMap.newKeySet();
+            updated.add(hash);
+            return updated;
+        });
+    }
+
+    // Dentro de una transaccion se invalida al terminarla: antes del commit un request concurrente volveria
+    // a leer el usuario sin el cambio y lo dejaria otra vez en la cache
+    public void invalidateUser(String email) {
+        if (email == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictUser(email);
+                }
+            });
+        } else {
+            evictUser(email);
+        }
+    }
+
+    private void evictUser(String email) {
+        Set<String> hashes = hashesByEmail.remove(emailKey(email));
+        if (hashes != null) {
+            cache.invalidateAll(hashes);
+        }
+        logger.debug("Cached principals for user {} invalidated", email);
+    }
+
+    private void unindex(String email, String hash) {
+        hashesByEmail.computeIfPresent(emailKey(email), (key, hashes) -> {
+            if (!cache.asMap().containsKey(hash)) {
+                hashes.remove(hash);
+            }
+            return hashes.isEmpty() ? null : hashes;
+        });
+    }
+
+    private String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    public Cache<String, CachedPrincipal> getCache() {
+        return cache;
+    }
+
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record CachedPrincipal(String email, List<String> roles, Date expiration, boolean active) {
+
+        public CachedPrincipal {
+            roles = roles == null ? List.of() : List.copyOf(roles);
+        }
+    }
+}
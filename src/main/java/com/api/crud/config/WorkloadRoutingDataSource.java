@@ -0,0 +1,30 @@
+package com.api.crud.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// Elige el pool segun la carga del hilo actual. La decision se toma cuando Hibernate pide la conexion
+// (al empezar la transaccion), asi que un @ReportingQuery dentro de una transaccion ya abierta sigue en OLTP.
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Workload { OLTP, REPORTING }
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : Workload.OLTP;
+    }
+
+    static void set(Workload workload) {
+        if (workload == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(workload);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return current();
+    }
+}
@@ -1,5 +1,6 @@
 package com.api.crud.controllers;
 
+import com.api.crud.DTO.CartBatchDTO;
 import com.api.crud.DTO.CartDTO;
 import com.api.crud.services.CartService;
 import org.slf4j.Logger;
@@ -165,6 +166,26 @@ public class CartController {
         }
     }
 
+    // 7) Cambios en bloque (vaciar, altas/modificaciones y bajas) en una sola transaccion
+    @PostMapping("/batch/{cartId}")
+    public ResponseEntity<CartDTO> applyBatch(@PathVariable Long cartId, @RequestBody CartBatchDTO batch) {
+        logger.info("Received batch for cart {}", cartId);
+        ResponseEntity<CartDTO> response;
+        try {
+            cartService.applyBatch(cartId, batch);
+            response = cartService.findCartById(cartId)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid batch for cart {}: {}", cartId, e.getMessage());
+            response = ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error applying batch to cart {}: {}", cartId, e.getMessage());
+            response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+        return response;
+    }
+
 
 
 }
@@ -1,17 +1,24 @@
 package com.api.crud.controllers;
 
+import com.api.crud.DTO.CursorPageDTO;
 import com.api.crud.DTO.OrderDTO;
 import com.api.crud.DTO.OrderItemDTO;
 import com.api.crud.models.enums.OrderStatus;
 import com.api.crud.models.enums.PaymentStatus;
+import com.api.crud.services.OrderExportService;
 import com.api.crud.services.OrderService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -22,10 +29,12 @@ public class OrderController {
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
 
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderExportService orderExportService) {
         this.orderService = orderService;
+        this.orderExportService = orderExportService;
     }
 
     // 1) Obtener todas las órdenes
@@ -60,6 +69,9 @@ public class OrderController {
             OrderDTO order = orderService.createOrder(userId, items);
             logger.info("Order created successfully with ID {}", order.getIdOrder());
             response = ResponseEntity.status(HttpStatus.CREATED).body(order);
+        } catch (IllegalStateException e) {
+            logger.warn("Order for user {} rejected: {}", userId, e.getMessage());
+            response = ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             logger.error("Error creating order: {}", e.getMessage());
             response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -105,6 +117,30 @@ public class OrderController {
         return response;
     }
 
+    // 4b) Historial paginado de un usuario (mas recientes primero), con filtro de estado opcional
+    @GetMapping("/user/{email}/history")
+    public ResponseEntity<CursorPageDTO<OrderDTO>> getOrderHistory(
+            @PathVariable String email,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        logger.info("Fetching order history for user {} with size {}", email, size);
+        ResponseEntity<CursorPageDTO<OrderDTO>> response;
+        try {
+            CursorPageDTO<OrderDTO> page = orderService.getOrderHistoryPage(email, status, cursor, size, includeTotal);
+            logger.info("Returning {} orders, has next page: {}", page.getItems().size(), page.getNextCursor() != null);
+            response = ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid order history request: {}", e.getMessage());
+            response = ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (Exception e) {
+            logger.error("Error fetching order history for {}: {}", email, e.getMessage());
+            response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+        return response;
+    }
+
     // 5) Actualizar estado de la orden
     @PutMapping("/{orderId}/status")
     public ResponseEntity<String> updateOrderStatus(
@@ -180,4 +216,33 @@ public class OrderController {
         }
         return response;
     }
+
+    // 9) Exportar órdenes de un rango de fechas (NDJSON o CSV), escritas a medida que se leen de la base
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        logger.info("Exporting orders between {} and {} as {}", start, end, format);
+        ResponseEntity<StreamingResponseBody> response;
+        try {
+            if (start.isAfter(end)) {
+                throw new IllegalArgumentException("start must not be after end");
+            }
+            OrderExportService.Format exportFormat = OrderExportService.Format.valueOf(format.toUpperCase());
+            MediaType mediaType = exportFormat == OrderExportService.Format.CSV
+                    ? new MediaType("text", "csv")
+                    : MediaType.APPLICATION_NDJSON;
+            StreamingResponseBody body = out -> orderExportService.exportOrders(start, end, exportFormat, out);
+            response = ResponseEntity.ok()
+                    .contentType(mediaType)
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"orders." + exportFormat.name().toLowerCase() + "\"")
+                    .body(body);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid export request: {}", e.getMessage());
+            response = ResponseEntity.badRequest().build();
+        }
+        return response;
+    }
 }
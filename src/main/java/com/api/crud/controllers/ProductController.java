@@ -1,20 +1,27 @@
 package com.api.crud.controllers;
 
+import com.api.crud.DTO.CursorPageDTO;
 import com.api.crud.DTO.ProductDTO;
 import com.api.crud.models.entity.Product;
+import com.api.crud.services.CatalogVersion;
 import com.api.crud.services.ProductService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/products")
@@ -24,22 +31,50 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    // Los clientes guardan el listado pero lo revalidan (If-None-Match) pasado max-age; 0 = siempre revalidar
+    @Value("${catalog.http.max-age-seconds:0}")
+    private long catalogMaxAgeSeconds;
+
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
 
+    @GetMapping
+    public ResponseEntity<CursorPageDTO<ProductDTO>> listProducts(
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        logger.info("Received request to list products sorted by {} {} with size {}", sort, direction, size);
+        ResponseEntity<CursorPageDTO<ProductDTO>> response;
+        try {
+            CursorPageDTO<ProductDTO> page = productService.findProductsPage(sort, direction, cursor, size);
+            logger.info("Returning {} products, has next page: {}", page.getItems().size(), page.getNextCursor() != null);
+            response = ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid product listing request: {}", e.getMessage());
+            response = ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        return response;
+    }
+
     @GetMapping(path = "/ShowProducts")
-    public ResponseEntity<List<ProductDTO>> showProducts() {
+    public ResponseEntity<List<ProductDTO>> showProducts(WebRequest request) {
         logger.info("Starting to fetch products.");
-        ResponseEntity<List<ProductDTO>> response;
-        List<ProductDTO> products = productService.showProducts();
-        if (products.isEmpty()) {
-            logger.info("No products found");
-            response = ResponseEntity.status(HttpStatus.NOT_FOUND).body(Collections.emptyList());
-        }else{
-        logger.info("Successfully found {} products.", products.size());
-        response = ResponseEntity.ok(products);
-    }
+        ResponseEntity<List<ProductDTO>> response = null;
+        if (!catalogNotModified(request)) {
+            List<ProductDTO> products = productService.showProducts();
+            if (products.isEmpty()) {
+                logger.info("No products found");
+                response = ResponseEntity.status(HttpStatus.NOT_FOUND).body(Collections.emptyList());
+            } else {
+                logger.info("Successfully found {} products.", products.size());
+                response = ResponseEntity.ok().cacheControl(catalogCacheControl()).body(products);
+            }
+        }
         return response;
-}
+    }
 
     @GetMapping(path = "/FindProductById/{id}")
     public ResponseEntity<ProductDTO> findProductById(@PathVariable Long id) {
@@ -149,8 +184,11 @@ public class ProductController {
 
     // 3) Buscar productos por categoría
     @GetMapping("/FindByCategory/{category}")
-    public ResponseEntity<List<ProductDTO>> findProductsByCategory(@PathVariable String category) {
+    public ResponseEntity<List<ProductDTO>> findProductsByCategory(@PathVariable String category, WebRequest request) {
         logger.info("Received request to find products by category {}", category);
+        if (catalogNotModified(request)) {
+            return null;
+        }
 
         List<ProductDTO> products = productService.findProductsByCategory(category);
         if (products.isEmpty()) {
@@ -158,7 +196,7 @@ public class ProductController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Collections.emptyList());
         }
         logger.info("Found {} products in category {}", products.size(), category);
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok().cacheControl(catalogCacheControl()).body(products);
     }
 
     // 4) Buscar productos por rango de precio
@@ -179,8 +217,11 @@ public class ProductController {
 
     // 5) Buscar productos en stock
     @GetMapping("/FindInStock")
-    public ResponseEntity<List<ProductDTO>> findProductsInStock() {
+    public ResponseEntity<List<ProductDTO>> findProductsInStock(WebRequest request) {
         logger.info("Received request to find products in stock");
+        if (catalogNotModified(request)) {
+            return null;
+        }
 
         List<ProductDTO> products = productService.findProductsInStock();
         if (products.isEmpty()) {
@@ -188,7 +229,7 @@ public class ProductController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Collections.emptyList());
         }
         logger.info("Found {} products in stock", products.size());
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok().cacheControl(catalogCacheControl()).body(products);
     }
 
     // 6) Listar productos ordenados por precio ascendente
@@ -263,5 +304,27 @@ public class ProductController {
         }
     }
 
-}
+    @GetMapping("/CacheStats")
+    public ResponseEntity<Map<String, Map<String, Long>>> getCatalogCacheStats() {
+        logger.info("Received request for catalog cache stats");
+        return ResponseEntity.ok(productService.getCatalogCacheStats());
+    }
+
+    // GET condicional sobre la version del catalogo, antes de consultar la base. Si el ETag (o Last-Modified)
+    // del cliente coincide, checkNotModified deja la respuesta en 304 y el endpoint devuelve null;
+    // si no, igual agrega ETag y Last-Modified a la respuesta completa
+    private boolean catalogNotModified(WebRequest request) {
+        CatalogVersion.Snapshot version = catalogVersion.current();
+        boolean notModified = request.checkNotModified(catalogVersion.etag(version), version.lastModified());
+        if (notModified) {
+            logger.info("Catalog version {} not modified, returning 304", version.version());
+        }
+        return notModified;
+    }
+
+    // private: los endpoints requieren autenticacion, ningun cache compartido debe guardarlos
+    private CacheControl catalogCacheControl() {
+        return CacheControl.maxAge(catalogMaxAgeSeconds, TimeUnit.SECONDS).cachePrivate().mustRevalidate();
+    }
 
+}
\ No newline at end of file
@@ -3,14 +3,19 @@ package com.api.crud.controllers;
 import com.api.crud.DTO.LoginRequestDTO;
 import com.api.crud.DTO.UserModelDTO;
 import com.api.crud.config.JWTUtil;
+import com.api.crud.config.LoginRateLimiter;
 import com.api.crud.services.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/users")
 public class UserController {
@@ -21,6 +26,9 @@ public class UserController {
     @Autowired
     private JWTUtil jwtUtil;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     @PostMapping(path = "/register")
@@ -47,26 +55,45 @@ public class UserController {
     }
 
     @PostMapping(path = "/login")
-    public ResponseEntity<String> login(@RequestBody LoginRequestDTO loginRequestDTO) {
+    public ResponseEntity<String> login(@RequestBody LoginRequestDTO loginRequestDTO, HttpServletRequest request) {
         logger.info("Received request to login user with email: {}", loginRequestDTO.getEmail());
 
         String token = null;
         HttpStatus status = HttpStatus.OK;
         String message = null;
+        long retryAfterSeconds = 0;
 
         try {
-            token = userService.login(loginRequestDTO);
-            logger.info("Login successful for user with email: {}", loginRequestDTO.getEmail());
+            // El rate limit va antes de la consulta y de BCrypt: un intento rechazado no cuesta CPU
+            retryAfterSeconds = loginRateLimiter.tryAcquire(request.getRemoteAddr(), loginRequestDTO.getEmail());
+            if (retryAfterSeconds > 0) {
+                status = HttpStatus.TOO_MANY_REQUESTS;
+                message = "Too many login attempts, try again later.";
+            } else {
+                token = userService.login(loginRequestDTO);
+                logger.info("Login successful for user with email: {}", loginRequestDTO.getEmail());
+            }
         } catch (IllegalArgumentException e) {
             status = HttpStatus.UNAUTHORIZED;
             message = e.getMessage();
+            loginRateLimiter.recordFailure(loginRequestDTO.getEmail());
             logger.warn("Login failed for user with email: {} - {}", loginRequestDTO.getEmail(), message);
+        } catch (RejectedExecutionException e) {
+            // Pool de BCrypt saturado: se rechaza rapido y el cliente reintenta segun Retry-After
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+            message = "Too many login attempts, try again shortly.";
+            retryAfterSeconds = 1;
+            logger.warn("Login rejected for user with email: {} - password hashing saturated", loginRequestDTO.getEmail());
         } catch (Exception e) {
             status = HttpStatus.INTERNAL_SERVER_ERROR;
             message = "An unexpected error occurred during login.";
             logger.error("Unexpected error during login for user with email: {}: {}", loginRequestDTO.getEmail(), e.getMessage());
         }
-        return ResponseEntity.status(status).body(message != null ? message : token);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (retryAfterSeconds > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        }
+        return response.body(message != null ? message : token);
     }
 
 }
\ No newline at end of file
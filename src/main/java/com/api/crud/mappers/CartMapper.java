@@ -0,0 +1,43 @@
+package com.api.crud.mappers;
+
+import com.api.crud.DTO.CartDTO;
+import com.api.crud.DTO.CartItemDTO;
+import com.api.crud.models.entity.Cart;
+import com.api.crud.models.entity.CartItem;
+import com.api.crud.models.entity.Product;
+
+public final class CartMapper {
+
+    private CartMapper() {}
+
+    public static CartDTO toDTO(Cart cart) {
+        if (cart == null) {
+            return null;
+        }
+        CartDTO dto = new CartDTO(
+                cart.getIdCart(),
+                cart.getUserCart() != null ? cart.getUserCart().getId() : null,
+                cart.getItemsCart() != null
+                        ? cart.getItemsCart().stream().map(CartMapper::toItemDTO).toList()
+                        : null);
+        dto.setTotalCart(cart.getTotalCart());
+        dto.setItemCount(cart.getItemCount());
+        return dto;
+    }
+
+    public static CartItemDTO toItemDTO(CartItem item) {
+        if (item == null) {
+            return null;
+        }
+        Product product = item.getProductCartItem();
+        return new CartItemDTO(
+                item.getIdCartItem(),
+                item.getCart() != null ? item.getCart().getIdCart() : null,
+                product != null ? product.getIdProduct() : null,
+                product != null ? product.getNameProduct() : null,
+                product != null ? product.getPriceProduct() : null,
+                product != null ? product.getImageUrl() : null,
+                item.getAmountCartItem(),
+                item.getPriceCartItem());
+    }
+}
@@ -0,0 +1,42 @@
+package com.api.crud.mappers;
+
+import com.api.crud.DTO.OrderDTO;
+import com.api.crud.DTO.OrderItemDTO;
+import com.api.crud.models.entity.Order;
+import com.api.crud.models.entity.OrderItem;
+
+public final class OrderMapper {
+
+    private OrderMapper() {}
+
+    public static OrderDTO toDTO(Order order) {
+        if (order == null) {
+            return null;
+        }
+        return new OrderDTO(
+                order.getIdOrder(),
+                order.getTotalOrder(),
+                order.getPurchaseDateOrder(),
+                order.getPaymentStatus() != null ? order.getPaymentStatus().name() : null,
+                order.getOrderStatus() != null ? order.getOrderStatus().name() : null,
+                order.getUserOrder() != null ? order.getUserOrder().getId() : null,
+                order.getUserOrder() != null ? order.getUserOrder().getEmail() : null,
+                order.getItemsOrder() != null
+                        ? order.getItemsOrder().stream().map(OrderMapper::toItemDTO).toList()
+                        : null);
+    }
+
+    // Solo se leen los ids de order y producto: Hibernate los resuelve desde el proxy sin inicializarlo
+    public static OrderItemDTO toItemDTO(OrderItem item) {
+        if (item == null) {
+            return null;
+        }
+        OrderItemDTO dto = new OrderItemDTO();
+        dto.setIdOrderItem(item.getIdOrderItem());
+        dto.setPriceOrderItem(item.getPriceOrderItem());
+        dto.setAmountOrderItem(item.getAmountOrderItem());
+        dto.setOrder(item.getOrder() != null ? item.getOrder().getIdOrder() : null);
+        dto.setProductOrderItem(item.getProductOrderItem() != null ? item.getProductOrderItem().getIdProduct() : null);
+        return dto;
+    }
+}
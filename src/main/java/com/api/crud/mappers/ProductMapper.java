@@ -0,0 +1,38 @@
+package com.api.crud.mappers;
+
+import com.api.crud.DTO.ProductDTO;
+import com.api.crud.models.entity.Product;
+import com.api.crud.models.entity.ProductDigital;
+import com.api.crud.models.entity.ProductPhysical;
+import org.hibernate.Hibernate;
+
+// Mapeo directo entidad -> DTO, sin la reflexion de ModelMapper. Los campos propios de cada subtipo se copian segun la clase real.
+public final class ProductMapper {
+
+    private ProductMapper() {}
+
+    public static ProductDTO toDTO(Product product) {
+        if (product == null) {
+            return null;
+        }
+        // Un proxy lazy de Product no es instanceof de ningun subtipo: se desenvuelve primero
+        product = (Product) Hibernate.unproxy(product);
+        ProductDTO dto = new ProductDTO(
+                product.getIdProduct(),
+                product.getNameProduct(),
+                product.getPriceProduct(),
+                product.getDescription(),
+                product.getImageUrl(),
+                product.getCategory());
+        dto.setActive(product.isActive());
+
+        if (product instanceof ProductPhysical physical) {
+            dto.setStockProduct(physical.getStockProduct());
+            dto.setShippingAddress(physical.getShippingAddress());
+        } else if (product instanceof ProductDigital digital) {
+            dto.setDownloadLink(digital.getDownloadLink());
+            dto.setLicense(digital.getLicense());
+        }
+        return dto;
+    }
+}
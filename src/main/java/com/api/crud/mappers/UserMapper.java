@@ -0,0 +1,42 @@
+package com.api.crud.mappers;
+
+import com.api.crud.DTO.RoleDTO;
+import com.api.crud.DTO.UserDTO;
+import com.api.crud.DTO.UserModelDTO;
+import com.api.crud.models.entity.Role;
+import com.api.crud.models.entity.UserModel;
+
+// Mismo resultado que el typeMap de ModelMapperConfig (roles por nombre, ordenes por id)
+public final class UserMapper {
+
+    private UserMapper() {}
+
+    public static UserModelDTO toModelDTO(UserModel user) {
+        if (user == null) {
+            return null;
+        }
+        return new UserModelDTO(
+                user.getId(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getEmail(),
+                user.getPhone(),
+                user.getPassword(),
+                user.getRoleNames(),
+                user.getOrderIds());
+    }
+
+    public static UserDTO toDTO(UserModel user) {
+        if (user == null) {
+            return null;
+        }
+        return new UserDTO(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail());
+    }
+
+    public static RoleDTO toRoleDTO(Role role) {
+        if (role == null) {
+            return null;
+        }
+        return new RoleDTO(role.getNameRole());
+    }
+}
@@ -4,12 +4,19 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table (name = "carts")
+@Table (name = "carts", indexes = {
+        @Index(name = "idx_carts_user_active", columnList = "user_id, active"),
+        // AbandonedCartSweeper: active = ? AND creationDate < ? (y el keyset por idCart)
+        @Index(name = "idx_carts_active_creation", columnList = "active, creationDate"),
+        @Index(name = "idx_carts_creation_date", columnList = "creationDate")
+})
 public class Cart {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -29,6 +36,21 @@ public class Cart {
     @Getter @Setter
     private LocalDate creationDate;
 
+    // Totales desnormalizados: solo los mueven los UPDATE atomicos de CartDao (applyTotalsDelta / recalculateTotals).
+    // updatable = false evita que un merge de la entidad pise el valor con uno viejo.
+    @Column(name = "totalCart", nullable = false, precision = 12, scale = 2, updatable = false)
+    @Getter @Setter
+    private BigDecimal totalCart = BigDecimal.ZERO;
+
+    @Column(name = "itemCount", nullable = false, updatable = false)
+    @Getter @Setter
+    private int itemCount;
+
+    // Ultimo cambio del carrito o de sus items; lo mueven los mismos UPDATE de los totales y lo usa AbandonedCartSweeper
+    @Column(name = "lastModified", updatable = false)
+    @Getter @Setter
+    private LocalDateTime lastModified;
+
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     @Getter @Setter
     private List<CartItem> itemsCart = new ArrayList<>();
@@ -42,4 +64,11 @@ public class Cart {
 
     public Cart(){}
 
+    @PrePersist
+    void onCreate() {
+        if (lastModified == null) {
+            lastModified = LocalDateTime.now();
+        }
+    }
+
 }
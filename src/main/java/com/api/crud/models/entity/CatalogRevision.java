@@ -0,0 +1,35 @@
+package com.api.crud.models.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+// Fila unica con la revision del catalogo, compartida por todas las instancias: cada escritura visible en los
+// listados la incrementa dentro de su transaccion y los ETag de ProductController salen de aca
+@Entity
+@Table(name = "catalog_revision")
+public class CatalogRevision {
+
+    public static final long SINGLETON_ID = 1L;
+
+    @Id
+    @Getter @Setter
+    private Long idRevision;
+
+    @Column(name = "revision", nullable = false)
+    @Getter @Setter
+    private long revision;
+
+    @Column(name = "lastModified", nullable = false)
+    @Getter @Setter
+    private LocalDateTime lastModified;
+
+    public CatalogRevision(Long idRevision, long revision, LocalDateTime lastModified) {
+        this.idRevision = idRevision;
+        this.revision = revision;
+        this.lastModified = lastModified;
+    }
+
+    public CatalogRevision(){}
+}
@@ -0,0 +1,73 @@
+package com.api.crud.models.entity;
+
+import com.api.crud.models.enums.EmailStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next", columnList = "statusEmail, nextAttemptAt")
+})
+public class EmailOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    @Getter @Setter
+    private Long idEmail;
+
+    @Column(name = "recipient", nullable = false)
+    @Getter @Setter
+    private String recipient;
+
+    @Column(name = "subject", nullable = false)
+    @Getter @Setter
+    private String subject;
+
+    @Column(name = "body", nullable = false, columnDefinition = "TEXT")
+    @Getter @Setter
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statusEmail", nullable = false)
+    @Getter @Setter
+    private EmailStatus statusEmail;
+
+    @Column(name = "attempts", nullable = false)
+    @Getter @Setter
+    private int attempts;
+
+    @Column(name = "nextAttemptAt", nullable = false)
+    @Getter @Setter
+    private LocalDateTime nextAttemptAt;
+
+    // Hasta cuando el dispatcher que la tomo tiene la fila; vencido el lease otra pasada la puede reclamar
+    @Column(name = "lockedUntil")
+    @Getter @Setter
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "lastError", length = 500)
+    @Getter @Setter
+    private String lastError;
+
+    @Column(name = "createdAt", nullable = false)
+    @Getter @Setter
+    private LocalDateTime createdAt;
+
+    @Column(name = "sentAt")
+    @Getter @Setter
+    private LocalDateTime sentAt;
+
+    public EmailOutbox(String recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.statusEmail = EmailStatus.PENDING;
+        this.attempts = 0;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public EmailOutbox(){}
+}
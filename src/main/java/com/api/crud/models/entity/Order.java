@@ -5,6 +5,7 @@ import com.api.crud.models.enums.PaymentStatus;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.BatchSize;
 import lombok.Getter;
 import lombok.Setter;
 import java.math.BigDecimal;
@@ -12,10 +13,27 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Historial por usuario: WHERE user_id = ? ORDER BY purchaseDateOrder DESC, idOrder DESC (la PK va implicita en InnoDB)
+        @Index(name = "idx_orders_user_purchase_date", columnList = "user_id, purchaseDateOrder"),
+        @Index(name = "idx_orders_status", columnList = "orderStatus"),
+        @Index(name = "idx_orders_payment_status", columnList = "paymentStatus"),
+        @Index(name = "idx_orders_purchase_date", columnList = "purchaseDateOrder")
+})
+// Grafo para los listados: usuario, items y producto de cada item en el mismo SELECT (ver OrderDaoImp)
+@NamedEntityGraph(name = Order.GRAPH_WITH_ITEMS,
+        attributeNodes = {
+                @NamedAttributeNode("userOrder"),
+                @NamedAttributeNode(value = "itemsOrder", subgraph = "items")
+        },
+        subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("productOrderItem")))
 public class Order {
+
+    public static final String GRAPH_WITH_ITEMS = "Order.withUserAndItems";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
     @Getter @Setter
     private Long idOrder;
 
@@ -46,6 +64,7 @@ public class Order {
     private UserModel userOrder;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
     @Getter @Setter
     private List<OrderItem> itemsOrder;
 
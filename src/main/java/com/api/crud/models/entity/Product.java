@@ -8,9 +8,12 @@ import lombok.Getter;
 import lombok.Setter;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_category_normalized", columnList = "categoryNormalized")
+})
 @Inheritance(strategy = InheritanceType.JOINED)
 @DiscriminatorColumn(name = "product_type")
 public abstract class Product {
@@ -45,6 +48,12 @@ public abstract class Product {
     @Size (min =0, max =50)
     private String category;
 
+    // Copia de category en minusculas y sin espacios: findProductsByCategory filtra por igualdad sobre esta columna
+    // indexada en lugar de LOWER(category), que no puede usar indice
+    @Column(name = "categoryNormalized", length = 50)
+    @Getter
+    private String categoryNormalized;
+
     @Column(name = "active")
     @Getter @Setter
     private boolean active = true;
@@ -72,4 +81,14 @@ public abstract class Product {
 
     public Product(){}
 
+    @PrePersist
+    @PreUpdate
+    void normalizeCategory() {
+        this.categoryNormalized = normalizeCategory(category);
+    }
+
+    public static String normalizeCategory(String category) {
+        return category != null ? category.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
 }
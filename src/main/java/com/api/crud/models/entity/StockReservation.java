@@ -0,0 +1,51 @@
+package com.api.crud.models.entity;
+
+import com.api.crud.models.enums.ReservationStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_stock_reservations_order", columnList = "order_id")
+})
+public class StockReservation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservation_seq")
+    @SequenceGenerator(name = "stock_reservation_seq", sequenceName = "stock_reservation_seq", allocationSize = 50)
+    @Getter @Setter
+    private Long idReservation;
+
+    // Ids planos sin FK: el insert no toma lock compartido sobre la fila del producto que se esta descontando
+    @Column(name = "product_id", nullable = false)
+    @Getter @Setter
+    private Long productId;
+
+    @Column(name = "order_id")
+    @Getter @Setter
+    private Long orderId;
+
+    @Column(name = "amountReserved", nullable = false)
+    @Getter @Setter
+    private int amountReserved;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statusReservation", nullable = false)
+    @Getter @Setter
+    private ReservationStatus statusReservation;
+
+    @Column(name = "createdAt", nullable = false)
+    @Getter @Setter
+    private LocalDateTime createdAt;
+
+    public StockReservation(Long productId, Long orderId, int amountReserved) {
+        this.productId = productId;
+        this.orderId = orderId;
+        this.amountReserved = amountReserved;
+        this.statusReservation = ReservationStatus.RESERVED;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public StockReservation(){}
+}
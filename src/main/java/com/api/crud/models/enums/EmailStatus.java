@@ -0,0 +1,8 @@
+package com.api.crud.models.enums;
+
+public enum EmailStatus {
+    PENDING,     // En cola, esperando su proximo intento
+    SENDING,     // Tomado por el dispatcher (con lease)
+    SENT,        // Entregado al servidor SMTP
+    FAILED       // Agoto los reintentos
+}
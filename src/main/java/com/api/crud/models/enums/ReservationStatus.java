@@ -0,0 +1,7 @@
+package com.api.crud.models.enums;
+
+public enum ReservationStatus {
+    RESERVED,     // Stock apartado, pendiente de confirmar
+    COMMITTED,    // Confirmado, el stock ya no vuelve
+    RELEASED      // Liberado, el stock se devolvio
+}
@@ -0,0 +1,7 @@
+package com.api.crud.models.enums;
+
+public enum StockUpdate {
+    UPDATED,       // Stock modificado, sigue del mismo lado de cero
+    CROSSED_ZERO,  // Stock modificado y paso de/a cero: el producto entra o sale de /FindInStock
+    REJECTED       // No alcanzaba el stock, la fila no cambio
+}
@@ -4,6 +4,8 @@ import com.api.crud.models.entity.Cart;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,7 +14,7 @@ public interface CartDao {
 
     List<Cart> getCarts();
 
-    void saveCart(Cart cart);
+    Cart saveCart(Cart cart);
 
     public Optional<Cart> findCartByUserEmail(String email);
 
@@ -30,6 +32,18 @@ public interface CartDao {
 
     BigDecimal calculateCartTotal(Long cartId);
 
+    Optional<BigDecimal> findCartTotal(Long cartId);
+
+    void applyTotalsDelta(Long cartId, BigDecimal totalDelta, int itemCountDelta);
+
+    void recalculateTotals(Long cartId);
+
     void clearCart(Long cartId);
 
+    List<Long> findStaleCartIds(boolean active, LocalDate createdBefore, LocalDateTime modifiedBefore, Long afterId, int limit);
+
+    int deactivateCarts(Collection<Long> cartIds, LocalDate createdBefore, LocalDateTime modifiedBefore);
+
+    int purgeCarts(Collection<Long> cartIds, LocalDate createdBefore, LocalDateTime modifiedBefore);
+
 }
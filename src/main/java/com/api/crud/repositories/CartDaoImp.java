@@ -1,7 +1,9 @@
 package com.api.crud.repositories;
 
+import com.api.crud.config.ReportingQuery;
 import com.api.crud.models.entity.Cart;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
@@ -11,9 +13,12 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 @Transactional
@@ -25,9 +30,9 @@ public class CartDaoImp implements CartDao{
     private static final Logger logger = LoggerFactory.getLogger(CartDaoImp.class);
 
     @Override
-    public void saveCart(Cart cart) {
+    public Cart saveCart(Cart cart) {
         try {
-            entityManager.merge(cart);
+            return entityManager.merge(cart);
         } catch (Exception e) {
             logger.error("Error guardando el carrito en la base de datos: ", e);
             throw new RuntimeException("No se pudo guardar el carrito en la base de datos");
@@ -35,6 +40,7 @@ public class CartDaoImp implements CartDao{
     }
 
     @Override
+    @ReportingQuery
     public List<Cart> getCarts() {
         logger.debug("Executing query to fetch Carts");
         List<Cart> carts;
@@ -97,7 +103,7 @@ public class CartDaoImp implements CartDao{
     // 🔹 Nuevo método: Carrito activo
     @Override
     public Optional<Cart> findActiveCartByUserId(Long userId) {
-        String jpql = "SELECT c FROM Cart c WHERE c.u   serCart.id = :userId AND c.active = true";
+        String jpql = "SELECT c FROM Cart c WHERE c.userCart.id = :userId AND c.active = true";
         try {
             Cart cart = entityManager.createQuery(jpql, Cart.class)
                     .setParameter("userId", userId)
@@ -110,6 +116,7 @@ public class CartDaoImp implements CartDao{
 
     // 🔹 Nuevo método: Carritos por rango de fechas
     @Override
+    @ReportingQuery
     public List<Cart> getCartsByDateRange(LocalDate start, LocalDate end) {
         String jpql = "SELECT c FROM Cart c WHERE c.creationDate BETWEEN :start AND :end";
         try {
@@ -125,8 +132,10 @@ public class CartDaoImp implements CartDao{
 
     // 🔹 Nuevo método: Carritos con más de N ítems
     @Override
+    @ReportingQuery
     public List<Cart> getCartsWithMoreThanNItems(int minItems) {
-        String jpql = "SELECT c FROM Cart c WHERE SIZE(c.itemsCart) > :minItems";
+        // itemCount desnormalizado: evita el COUNT correlacionado sobre cart_items por cada carrito
+        String jpql = "SELECT c FROM Cart c WHERE c.itemCount > :minItems";
         try {
             return entityManager.createQuery(jpql, Cart.class)
                     .setParameter("minItems", minItems)
@@ -146,6 +155,101 @@ public class CartDaoImp implements CartDao{
         return total != null ? total : BigDecimal.ZERO;
     }
 
+    // Lectura O(1) por PK del total desnormalizado
+    @Override
+    public Optional<BigDecimal> findCartTotal(Long cartId) {
+        logger.debug("Executing query to read total of cart {}", cartId);
+        List<BigDecimal> totals = entityManager.createQuery(
+                        "SELECT c.totalCart FROM Cart c WHERE c.idCart = :cartId", BigDecimal.class)
+                .setParameter("cartId", cartId)
+                .getResultList();
+        return totals.stream().findFirst();
+    }
+
+    // UPDATE relativo: dos requests concurrentes sobre el mismo carrito se serializan en el lock de la fila y no se pisan
+    @Override
+    public void applyTotalsDelta(Long cartId, BigDecimal totalDelta, int itemCountDelta) {
+        logger.debug("Executing query to apply delta {} / {} items to cart {}", totalDelta, itemCountDelta, cartId);
+        entityManager.createQuery(
+                        "UPDATE Cart c SET c.totalCart = c.totalCart + :totalDelta, c.itemCount = c.itemCount + :itemCountDelta, " +
+                                "c.lastModified = :now WHERE c.idCart = :cartId")
+                .setParameter("totalDelta", totalDelta)
+                .setParameter("itemCountDelta", itemCountDelta)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("cartId", cartId)
+                .executeUpdate();
+    }
+
+    // Recalcula los totales desde cart_items (para operaciones en bloque o para corregir un desvio)
+    @Override
+    public void recalculateTotals(Long cartId) {
+        logger.debug("Executing query to recalculate totals of cart {}", cartId);
+        entityManager.createQuery(
+                        "UPDATE Cart c SET " +
+                                "c.totalCart = COALESCE((SELECT SUM(ci.priceCartItem * ci.amountCartItem) FROM CartItem ci WHERE ci.cart.idCart = :cartId), 0), " +
+                                "c.itemCount = (SELECT COUNT(ci) FROM CartItem ci WHERE ci.cart.idCart = :cartId), " +
+                                "c.lastModified = :now WHERE c.idCart = :cartId")
+                .setParameter("cartId", cartId)
+                .setParameter("now", LocalDateTime.now())
+                .executeUpdate();
+    }
+
+    // Keyset por idCart: cada pagina arranca despues del ultimo id visto, sin OFFSET, y solo trae ids (no hidrata Cart ni items)
+    @Override
+    public List<Long> findStaleCartIds(boolean active, LocalDate createdBefore, LocalDateTime modifiedBefore, Long afterId, int limit) {
+        logger.debug("Executing query to fetch stale carts after id {}", afterId);
+        String jpql = "SELECT c.idCart FROM Cart c WHERE c.active = :active AND c.idCart > :afterId " +
+                "AND c.creationDate < :createdBefore AND (c.lastModified IS NULL OR c.lastModified < :modifiedBefore) " +
+                "ORDER BY c.idCart";
+        try (Stream<Long> ids = entityManager.createQuery(jpql, Long.class)
+                .setParameter("active", active)
+                .setParameter("afterId", afterId)
+                .setParameter("createdBefore", createdBefore)
+                .setParameter("modifiedBefore", modifiedBefore)
+                .setMaxResults(limit)
+                .setHint("org.hibernate.fetchSize", limit)
+                .getResultStream()) {
+            return ids.toList();
+        }
+    }
+
+    // Los ids salen de findStaleCartIds en otra transaccion: el UPDATE repite el criterio de abandono
+    // para no desactivar un carrito que el usuario toco entre la lectura y la escritura
+    @Override
+    public int deactivateCarts(Collection<Long> cartIds, LocalDate createdBefore, LocalDateTime modifiedBefore) {
+        logger.debug("Executing query to deactivate {} carts", cartIds.size());
+        return entityManager.createQuery("UPDATE Cart c SET c.active = false WHERE c.idCart IN :cartIds AND c.active = true " +
+                        "AND c.creationDate < :createdBefore AND (c.lastModified IS NULL OR c.lastModified < :modifiedBefore)")
+                .setParameter("cartIds", cartIds)
+                .setParameter("createdBefore", createdBefore)
+                .setParameter("modifiedBefore", modifiedBefore)
+                .executeUpdate();
+    }
+
+    // Primero se bloquean los carritos que siguen cumpliendo el criterio (inactivos y sin cambios) y despues
+    // van dos DELETE por conjunto sobre esos ids (los items antes por la FK); no pasa por orphanRemoval ni carga entidades
+    @Override
+    public int purgeCarts(Collection<Long> cartIds, LocalDate createdBefore, LocalDateTime modifiedBefore) {
+        logger.debug("Executing query to purge {} carts", cartIds.size());
+        List<Long> stillStale = entityManager.createQuery("SELECT c.idCart FROM Cart c WHERE c.idCart IN :cartIds " +
+                        "AND c.active = false AND c.creationDate < :createdBefore " +
+                        "AND (c.lastModified IS NULL OR c.lastModified < :modifiedBefore)", Long.class)
+                .setParameter("cartIds", cartIds)
+                .setParameter("createdBefore", createdBefore)
+                .setParameter("modifiedBefore", modifiedBefore)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        if (stillStale.isEmpty()) {
+            return 0;
+        }
+        entityManager.createQuery("DELETE FROM CartItem ci WHERE ci.cart.idCart IN :cartIds")
+                .setParameter("cartIds", stillStale)
+                .executeUpdate();
+        return entityManager.createQuery("DELETE FROM Cart c WHERE c.idCart IN :cartIds")
+                .setParameter("cartIds", stillStale)
+                .executeUpdate();
+    }
+
     @Override
     public void clearCart(Long cartId) {
         String jpql = "DELETE FROM CartItem c WHERE c.cart.idCart = :cartId";
@@ -1,6 +1,8 @@
 package com.api.crud.repositories;
 
+import com.api.crud.DTO.CartItemDTO;
 import com.api.crud.models.entity.CartItem;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,15 +12,27 @@ public interface CartItemDao {
 
     Optional<CartItem> findCartItemById(Long cartItemId);
 
+    Optional<CartItem> findCartItemByIdForUpdate(Long cartItemId);
+
     public List<CartItem> findItemsByCartId(Long idCart);
 
+    List<CartItemDTO> findItemDTOsByCartId(Long idCart);
+
     Optional<CartItem> findByCartAndProductId(Long cartId, Long productId);
 
+    Optional<CartItem> findByCartAndProductIdForUpdate(Long cartId, Long productId);
+
 
     public void updateCartItemAmount(Long cartItemId, int newAmount);
 
     void removeCartItem(Long cartItemId);
 
+    List<CartItem> findItemsByCartAndProductIds(Long cartId, Collection<Long> productIds);
+
+    int deleteItemsByProductIds(Long cartId, Collection<Long> productIds);
+
+    void persistCartItems(Collection<CartItem> cartItems);
+
     void increaseCartItemAmount(Long cartItemId, int increment);
 
     void decreaseCartItemAmount(Long cartItemId, int decrement);
@@ -1,11 +1,14 @@
 package com.api.crud.repositories;
 
+import com.api.crud.DTO.CartItemDTO;
 import com.api.crud.models.entity.CartItem;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +35,13 @@ public class CartItemDaoImp implements CartItemDao{
         return Optional.ofNullable(cartItem);
     }
 
+    // Lock de fila para leer-modificar-escribir el item y calcular bien la diferencia que va al total del carrito
+    @Override
+    public Optional<CartItem> findCartItemByIdForUpdate(Long cartItemId) {
+        CartItem cartItem = entityManager.find(CartItem.class, cartItemId, LockModeType.PESSIMISTIC_WRITE);
+        return Optional.ofNullable(cartItem);
+    }
+
     @Override
     public List<CartItem> findItemsByCartId(Long idCart) {
         String jpql = "SELECT ci FROM CartItem ci WHERE ci.cart.idCart = :idCart";
@@ -40,6 +50,17 @@ public class CartItemDaoImp implements CartItemDao{
                 .getResultList();
     }
 
+    // Proyeccion con los datos del producto en un solo SELECT, sin hidratar CartItem ni Product
+    @Override
+    public List<CartItemDTO> findItemDTOsByCartId(Long idCart) {
+        String jpql = "SELECT new com.api.crud.DTO.CartItemDTO(ci.idCartItem, c.idCart, p.idProduct, p.nameProduct, " +
+                "p.priceProduct, p.imageUrl, ci.amountCartItem, ci.priceCartItem) " +
+                "FROM CartItem ci JOIN ci.cart c JOIN ci.productCartItem p WHERE c.idCart = :idCart";
+        return entityManager.createQuery(jpql, CartItemDTO.class)
+                .setParameter("idCart", idCart)
+                .getResultList();
+    }
+
     @Override
     public Optional<CartItem> findByCartAndProductId(Long cartId, Long productId) {
         String jpql = "SELECT ci FROM CartItem ci WHERE ci.cart.idCart = :cartId AND ci.productCartItem.idProduct = :productId";
@@ -55,6 +76,17 @@ public class CartItemDaoImp implements CartItemDao{
         }
     }
 
+    @Override
+    public Optional<CartItem> findByCartAndProductIdForUpdate(Long cartId, Long productId) {
+        String jpql = "SELECT ci FROM CartItem ci WHERE ci.cart.idCart = :cartId AND ci.productCartItem.idProduct = :productId";
+        return entityManager.createQuery(jpql, CartItem.class)
+                .setParameter("cartId", cartId)
+                .setParameter("productId", productId)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultStream()
+                .findFirst();
+    }
+
     @Override
     public void updateCartItemAmount(Long cartItemId, int newAmount) {
         CartItem cartItem = entityManager.find(CartItem.class, cartItemId);
@@ -76,6 +108,31 @@ public class CartItemDaoImp implements CartItemDao{
         }
     }
 
+    @Override
+    public List<CartItem> findItemsByCartAndProductIds(Long cartId, Collection<Long> productIds) {
+        String jpql = "SELECT ci FROM CartItem ci WHERE ci.cart.idCart = :cartId AND ci.productCartItem.idProduct IN :productIds";
+        return entityManager.createQuery(jpql, CartItem.class)
+                .setParameter("cartId", cartId)
+                .setParameter("productIds", productIds)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    @Override
+    public int deleteItemsByProductIds(Long cartId, Collection<Long> productIds) {
+        String jpql = "DELETE FROM CartItem ci WHERE ci.cart.idCart = :cartId AND ci.productCartItem.idProduct IN :productIds";
+        return entityManager.createQuery(jpql)
+                .setParameter("cartId", cartId)
+                .setParameter("productIds", productIds)
+                .executeUpdate();
+    }
+
+    // persist (no merge) para que los INSERT queden en la cola del flush y salgan en batch
+    @Override
+    public void persistCartItems(Collection<CartItem> cartItems) {
+        cartItems.forEach(entityManager::persist);
+    }
+
     @Override
     public void increaseCartItemAmount(Long cartItemId, int increment) {
         CartItem item = entityManager.find(CartItem.class, cartItemId);
@@ -0,0 +1,11 @@
+package com.api.crud.repositories;
+
+import com.api.crud.models.entity.CatalogRevision;
+import java.util.Optional;
+
+public interface CatalogRevisionDao {
+
+    Optional<CatalogRevision> findCurrent();
+
+    void increment();
+}
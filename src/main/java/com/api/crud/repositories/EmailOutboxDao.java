@@ -0,0 +1,19 @@
+package com.api.crud.repositories;
+
+import com.api.crud.models.entity.EmailOutbox;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxDao {
+
+    void saveEmail(EmailOutbox email);
+
+    List<EmailOutbox> claimBatch(int limit, LocalDateTime now, LocalDateTime leaseUntil);
+
+    void markSent(Collection<Long> idEmails, LocalDateTime sentAt);
+
+    void markRetry(Long idEmail, int attempts, LocalDateTime nextAttemptAt, String lastError);
+
+    void markFailed(Long idEmail, int attempts, String lastError);
+}
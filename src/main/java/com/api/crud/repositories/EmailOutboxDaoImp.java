@@ -0,0 +1,100 @@
+package com.api.crud.repositories;
+
+import com.api.crud.models.entity.EmailOutbox;
+import com.api.crud.models.enums.EmailStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.hibernate.LockMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Transactional
+public class EmailOutboxDaoImp implements EmailOutboxDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDaoImp.class);
+
+    // Se guarda dentro de la transaccion del llamador: el mail existe solo si el registro hace commit
+    @Override
+    public void saveEmail(EmailOutbox email) {
+        logger.debug("Executing query to enqueue email '{}' for {}", email.getSubject(), email.getRecipient());
+        entityManager.persist(email);
+    }
+
+    // Toma las filas vencidas (pendientes o con lease expirado) con SKIP LOCKED, asi varias instancias
+    // pueden despachar en paralelo sin pisarse, y las deja en SENDING hasta leaseUntil
+    @Override
+    public List<EmailOutbox> claimBatch(int limit, LocalDateTime now, LocalDateTime leaseUntil) {
+        List<EmailOutbox> emails = entityManager.unwrap(Session.class).createSelectionQuery(
+                        "SELECT e FROM EmailOutbox e " +
+                                "WHERE (e.statusEmail = :pending AND e.nextAttemptAt <= :now) " +
+                                "OR (e.statusEmail = :sending AND e.lockedUntil < :now) " +
+                                "ORDER BY e.idEmail", EmailOutbox.class)
+                .setParameter("pending", EmailStatus.PENDING)
+                .setParameter("sending", EmailStatus.SENDING)
+                .setParameter("now", now)
+                .setMaxResults(limit)
+                .setHibernateLockMode(LockMode.UPGRADE_SKIPLOCKED)
+                .getResultList();
+
+        emails.forEach(email -> {
+            email.setStatusEmail(EmailStatus.SENDING);
+            email.setLockedUntil(leaseUntil);
+        });
+        logger.debug("Claimed {} outbox emails", emails.size());
+        return emails;
+    }
+
+    @Override
+    public void markSent(Collection<Long> idEmails, LocalDateTime sentAt) {
+        if (idEmails.isEmpty()) {
+            return;
+        }
+        entityManager.createQuery(
+                        "UPDATE EmailOutbox e SET e.statusEmail = :sent, e.sentAt = :sentAt, e.lockedUntil = NULL, " +
+                                "e.attempts = e.attempts + 1, e.lastError = NULL WHERE e.idEmail IN :ids")
+                .setParameter("sent", EmailStatus.SENT)
+                .setParameter("sentAt", sentAt)
+                .setParameter("ids", idEmails)
+                .executeUpdate();
+    }
+
+    @Override
+    public void markRetry(Long idEmail, int attempts, LocalDateTime nextAttemptAt, String lastError) {
+        entityManager.createQuery(
+                        "UPDATE EmailOutbox e SET e.statusEmail = :pending, e.attempts = :attempts, " +
+                                "e.nextAttemptAt = :nextAttemptAt, e.lockedUntil = NULL, e.lastError = :lastError " +
+                                "WHERE e.idEmail = :id")
+                .setParameter("pending", EmailStatus.PENDING)
+                .setParameter("attempts", attempts)
+                .setParameter("nextAttemptAt", nextAttemptAt)
+                .setParameter("lastError", truncate(lastError))
+                .setParameter("id", idEmail)
+                .executeUpdate();
+    }
+
+    @Override
+    public void markFailed(Long idEmail, int attempts, String lastError) {
+        entityManager.createQuery(
+                        "UPDATE EmailOutbox e SET e.statusEmail = :failed, e.attempts = :attempts, " +
+                                "e.lockedUntil = NULL, e.lastError = :lastError WHERE e.idEmail = :id")
+                .setParameter("failed", EmailStatus.FAILED)
+                .setParameter("attempts", attempts)
+                .setParameter("lastError", truncate(lastError))
+                .setParameter("id", idEmail)
+                .executeUpdate();
+    }
+
+    private String truncate(String error) {
+        return error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
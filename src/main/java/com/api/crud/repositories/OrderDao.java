@@ -1,5 +1,6 @@
 package com.api.crud.repositories;
 
+import com.api.crud.DTO.OrderExportRowDTO;
 import com.api.crud.models.entity.Order;
 import com.api.crud.models.entity.Product;
 import com.api.crud.models.enums.OrderStatus;
@@ -7,6 +8,7 @@ import com.api.crud.models.enums.PaymentStatus;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface OrderDao {
 
@@ -24,6 +26,8 @@ public interface OrderDao {
 
     List<Order> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate);
 
+    int streamOrderExportRows(LocalDateTime startDate, LocalDateTime endDate, int fetchSize, Consumer<OrderExportRowDTO> consumer);
+
     void updateOrder(Order order);
 
     void deleteOrderById(Long idOrder);
@@ -32,6 +36,10 @@ public interface OrderDao {
 
     List<Order> getOrdersByUserAndStatus(Long userId, OrderStatus status);
 
+    List<Order> findOrderHistoryPage(String email, OrderStatus status, LocalDateTime lastDate, Long lastId, int limit);
+
+    long countOrdersByUserEmail(String email, OrderStatus status);
+
     Optional<Product> findProductById(Long productId);
 
 }
@@ -1,25 +1,39 @@
 package com.api.crud.repositories;
 
+import com.api.crud.config.ReportingQuery;
+import com.api.crud.DTO.OrderExportRowDTO;
 import com.api.crud.models.entity.Order;
 import com.api.crud.models.entity.Product;
 import com.api.crud.models.enums.OrderStatus;
 import com.api.crud.models.enums.PaymentStatus;
+import jakarta.persistence.EntityGraph;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
 @Transactional
 public class OrderDaoImp implements OrderDao {
 
+    private static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    // Los listados traen usuario, items y productos con el grafo Order.withUserAndItems: un SELECT con JOINs
+    // en lugar de 1 + N (usuarios) + N (items) + M (productos)
+    private EntityGraph<?> withItemsGraph() {
+        return entityManager.getEntityGraph(Order.GRAPH_WITH_ITEMS);
+    }
+
     @Override
     public void saveOrder(Order order) {
         if (order.getIdOrder() == null) {
@@ -35,9 +49,12 @@ public class OrderDaoImp implements OrderDao {
     }
 
     @Override
+    @ReportingQuery
     public List<Order> getOrders() {
         String query = "FROM Order";
-        return entityManager.createQuery(query, Order.class).getResultList();
+        return entityManager.createQuery(query, Order.class)
+                .setHint(FETCH_GRAPH, withItemsGraph())
+                .getResultList();
     }
 
     @Override
@@ -45,6 +62,7 @@ public class OrderDaoImp implements OrderDao {
         return entityManager.createQuery(
                         "SELECT o FROM Order o WHERE o.userOrder.email = :email", Order.class)
                 .setParameter("email", email)
+                .setHint(FETCH_GRAPH, withItemsGraph())
                 .getResultList();
     }
 
@@ -53,26 +71,56 @@ public class OrderDaoImp implements OrderDao {
         String query = "FROM Order o WHERE o.userOrder.id = :userId";
         return entityManager.createQuery(query, Order.class)
                 .setParameter("userId", userId)
+                .setHint(FETCH_GRAPH, withItemsGraph())
                 .getResultList();
     }
 
     @Override
+    @ReportingQuery
     public List<Order> getOrdersByStatus(OrderStatus status) {
         String query = "FROM Order o WHERE o.orderStatus = :status";
         return entityManager.createQuery(query, Order.class)
                 .setParameter("status", status)
+                .setHint(FETCH_GRAPH, withItemsGraph())
                 .getResultList();
     }
 
     @Override
+    @ReportingQuery
     public List<Order> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         String query = "FROM Order o WHERE o.purchaseDateOrder BETWEEN :startDate AND :endDate";
         return entityManager.createQuery(query, Order.class)
                 .setParameter("startDate", startDate)
                 .setParameter("endDate", endDate)
+                .setHint(FETCH_GRAPH, withItemsGraph())
                 .getResultList();
     }
 
+    // Proyeccion plana leida con cursor (fetchSize + useCursorFetch del pool reporting): no se hidratan Order/OrderItem,
+    // el contexto de persistencia no crece y cada fila se entrega al consumer apenas llega del driver.
+    // El stream se consume entero dentro de la transaccion del DAO.
+    @Override
+    @ReportingQuery
+    public int streamOrderExportRows(LocalDateTime startDate, LocalDateTime endDate, int fetchSize, Consumer<OrderExportRowDTO> consumer) {
+        String jpql = "SELECT new com.api.crud.DTO.OrderExportRowDTO(o.idOrder, o.purchaseDateOrder, u.email, o.orderStatus, " +
+                "o.paymentStatus, o.totalOrder, oi.idOrderItem, p.idProduct, p.nameProduct, oi.amountOrderItem, oi.priceOrderItem) " +
+                "FROM OrderItem oi JOIN oi.order o JOIN o.userOrder u JOIN oi.productOrderItem p " +
+                "WHERE o.purchaseDateOrder BETWEEN :startDate AND :endDate ORDER BY o.idOrder, oi.idOrderItem";
+        int rows = 0;
+        try (Stream<OrderExportRowDTO> stream = entityManager.createQuery(jpql, OrderExportRowDTO.class)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()) {
+            for (OrderExportRowDTO row : (Iterable<OrderExportRowDTO>) stream::iterator) {
+                consumer.accept(row);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
     @Override
     public void updateOrder(Order order) {
         entityManager.merge(order);
@@ -87,10 +135,12 @@ public class OrderDaoImp implements OrderDao {
     }
 
     @Override
+    @ReportingQuery
     public List<Order> getOrdersByPaymentStatus(PaymentStatus paymentStatus) {
         String query = "FROM Order o WHERE o.paymentStatus = :status";
         return entityManager.createQuery(query, Order.class)
                 .setParameter("status", paymentStatus)
+                .setHint(FETCH_GRAPH, withItemsGraph())
                 .getResultList();
     }
 
@@ -100,11 +150,62 @@ public class OrderDaoImp implements OrderDao {
         return entityManager.createQuery(query, Order.class)
                 .setParameter("userId", userId)
                 .setParameter("status", status)
+                .setHint(FETCH_GRAPH, withItemsGraph())
                 .getResultList();
     }
 
+    // Keyset sobre (purchaseDateOrder DESC, idOrder DESC). Primero se pagina sobre los ids (usa el indice
+    // user_id + purchaseDateOrder) y despues se cargan esas ordenes con el grafo: paginar con el JOIN FETCH
+    // de la coleccion haria que Hibernate corte la pagina en memoria.
+    @Override
+    public List<Order> findOrderHistoryPage(String email, OrderStatus status, LocalDateTime lastDate, Long lastId, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT o.idOrder FROM Order o WHERE o.userOrder.email = :email");
+        if (status != null) {
+            jpql.append(" AND o.orderStatus = :status");
+        }
+        boolean hasCursor = lastId != null;
+        if (hasCursor) {
+            jpql.append(" AND (o.purchaseDateOrder < :lastDate OR (o.purchaseDateOrder = :lastDate AND o.idOrder < :lastId))");
+        }
+        jpql.append(" ORDER BY o.purchaseDateOrder DESC, o.idOrder DESC");
+
+        TypedQuery<Long> idQuery = entityManager.createQuery(jpql.toString(), Long.class)
+                .setParameter("email", email)
+                .setMaxResults(limit);
+        if (status != null) {
+            idQuery.setParameter("status", status);
+        }
+        if (hasCursor) {
+            idQuery.setParameter("lastDate", lastDate);
+            idQuery.setParameter("lastId", lastId);
+        }
+        List<Long> ids = idQuery.getResultList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return entityManager.createQuery(
+                        "SELECT o FROM Order o WHERE o.idOrder IN :ids ORDER BY o.purchaseDateOrder DESC, o.idOrder DESC", Order.class)
+                .setParameter("ids", ids)
+                .setHint(FETCH_GRAPH, withItemsGraph())
+                .getResultList();
+    }
+
+    @Override
+    public long countOrdersByUserEmail(String email, OrderStatus status) {
+        String jpql = "SELECT COUNT(o) FROM Order o WHERE o.userOrder.email = :email" +
+                (status != null ? " AND o.orderStatus = :status" : "");
+        TypedQuery<Long> query = entityManager.createQuery(jpql, Long.class)
+                .setParameter("email", email);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        return query.getSingleResult();
+    }
+
     @Override
     public Optional<Product> findProductById(Long productId) {
         return Optional.ofNullable(entityManager.find(Product.class, productId));
     }
+
 }
@@ -1,7 +1,9 @@
 package com.api.crud.repositories;
 
+import com.api.crud.models.enums.StockUpdate;
 import com.api.crud.models.entity.Product;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +13,8 @@ public interface ProductDao {
 
     Optional<Product> findProductById(Long idProduct);
 
+    List<Product> findProductsByIds(Collection<Long> productIds);
+
     Optional<Product> findProductByName(String nameProduct);
 
     void saveProduct(Product product);
@@ -21,6 +25,10 @@ public interface ProductDao {
 
     boolean updateProductStock(String nameProduct, Integer newStockProduct);
 
+    StockUpdate reserveStock(Long idProduct, int amount);
+
+    StockUpdate releaseStock(Long idProduct, int amount);
+
     boolean updateProductPrice(String nameProduct, BigDecimal newPriceProduct);
 
     List<Product> findProductsByCategory(String category);
@@ -29,5 +37,9 @@ public interface ProductDao {
 
     List<Product> findProductsInStock();
 
+    List<Product> showProductsSorted(String sortField, boolean descending);
+
+    List<Product> findProductsPage(String sortField, boolean descending, Object lastValue, Long lastId, int limit);
+
 
 }
@@ -2,18 +2,22 @@ package com.api.crud.repositories;
 
 import com.api.crud.models.entity.Product;
 import com.api.crud.models.entity.ProductPhysical;
+import com.api.crud.models.enums.StockUpdate;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import org.hibernate.query.NativeQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 
 @Repository
@@ -25,6 +29,8 @@ public class ProductDaoImp implements ProductDao{
 
     private static final Logger logger = LoggerFactory.getLogger(ProductDaoImp.class);
 
+    private static final Set<String> SORTABLE_FIELDS = Set.of("idProduct", "nameProduct", "priceProduct");
+
     @Override
     public List<Product> showProducts() {
         logger.debug("Executing query to fetch products");
@@ -61,6 +67,14 @@ public class ProductDaoImp implements ProductDao{
         return response;
     }
 
+    @Override
+    public List<Product> findProductsByIds(Collection<Long> productIds) {
+        logger.debug("Executing query to find {} products by ID", productIds.size());
+        return entityManager.createQuery("SELECT p FROM Product p WHERE p.idProduct IN :ids", Product.class)
+                .setParameter("ids", productIds)
+                .getResultList();
+    }
+
     @Override
     public Optional<Product> findProductByName(String nameProduct) {
         logger.debug("Executing query to find product with name: {}", nameProduct);
@@ -117,27 +131,61 @@ public class ProductDaoImp implements ProductDao{
         logger.debug("Updating stock for product {} -> {}", nameProduct, newStockProduct);
         boolean success = false;
         try {
-            Product product = entityManager.createQuery(
-                            "SELECT p FROM Product p WHERE p.nameProduct = :name", Product.class)
+            // Un solo UPDATE en lugar de leer, modificar y hacer merge de la entidad
+            int updated = entityManager.createNativeQuery(
+                            "UPDATE productphysical SET stockProduct = :stock " +
+                                    "WHERE idProduct = (SELECT p.idProduct FROM products p WHERE p.nameProduct = :name)")
+                    .setParameter("stock", newStockProduct)
                     .setParameter("name", nameProduct)
-                    .getSingleResult();
-
-            if (product instanceof ProductPhysical) {
-                ProductPhysical physical = (ProductPhysical) product;
-                physical.setStockProduct(newStockProduct);
-                entityManager.merge(physical);
-                success = true;
-            } else {
-                logger.warn("Product {} is not a physical product. Cannot update stock.", nameProduct);
+                    .executeUpdate();
+            success = updated == 1;
+            if (!success) {
+                logger.warn("Product {} not found or not a physical product. Cannot update stock.", nameProduct);
             }
-        } catch (NoResultException e) {
-            logger.warn("No product found with name {}", nameProduct);
         } catch (Exception e) {
             logger.error("Error updating stock for {}: {}", nameProduct, e.getMessage());
         }
         return success;
     }
 
+    // Descuento condicional: la fila solo se actualiza si alcanza el stock, sin leer antes.
+    // El caso comun (queda stock) es un solo UPDATE; solo cuando no sobra se prueba dejarlo exactamente en cero,
+    // y las filas afectadas dicen si el producto salio de /FindInStock sin un SELECT del stock
+    @Override
+    public StockUpdate reserveStock(Long idProduct, int amount) {
+        logger.debug("Executing conditional stock decrement of {} for product {}", amount, idProduct);
+        if (updateStock("UPDATE productphysical SET stockProduct = stockProduct - :amount " +
+                "WHERE idProduct = :idProduct AND stockProduct > :amount", idProduct, amount)) {
+            return StockUpdate.UPDATED;
+        }
+        return updateStock("UPDATE productphysical SET stockProduct = 0 " +
+                "WHERE idProduct = :idProduct AND stockProduct = :amount", idProduct, amount)
+                ? StockUpdate.CROSSED_ZERO
+                : StockUpdate.REJECTED;
+    }
+
+    @Override
+    public StockUpdate releaseStock(Long idProduct, int amount) {
+        logger.debug("Executing stock increment of {} for product {}", amount, idProduct);
+        if (updateStock("UPDATE productphysical SET stockProduct = stockProduct + :amount " +
+                "WHERE idProduct = :idProduct AND stockProduct > 0", idProduct, amount)) {
+            return StockUpdate.UPDATED;
+        }
+        return updateStock("UPDATE productphysical SET stockProduct = stockProduct + :amount " +
+                "WHERE idProduct = :idProduct AND stockProduct <= 0", idProduct, amount)
+                ? StockUpdate.CROSSED_ZERO
+                : StockUpdate.REJECTED;
+    }
+
+    private boolean updateStock(String sql, Long idProduct, int amount) {
+        return entityManager.createNativeQuery(sql)
+                .setParameter("amount", amount)
+                .setParameter("idProduct", idProduct)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(ProductPhysical.class)
+                .executeUpdate() == 1;
+    }
+
     @Override
     @Transactional
     public boolean updateProductPrice(String nameProduct, BigDecimal newPriceProduct) {
@@ -166,8 +214,8 @@ public class ProductDaoImp implements ProductDao{
         if (category != null) {
             try {
                 TypedQuery<Product> query = entityManager.createQuery(
-                                "SELECT p FROM Product p WHERE LOWER(p.category) = LOWER(:cat)", Product.class)
-                        .setParameter("cat", category.trim());
+                                "SELECT p FROM Product p WHERE p.categoryNormalized = :cat", Product.class)
+                        .setParameter("cat", Product.normalizeCategory(category));
                 products = query.getResultList();
             } catch (Exception e) {
                 logger.error("Error finding products by category {}: {}", category, e.getMessage());
@@ -206,6 +254,75 @@ public class ProductDaoImp implements ProductDao{
         return products;
     }
 
+    @Override
+    public List<Product> showProductsSorted(String sortField, boolean descending) {
+        logger.debug("Executing query to fetch products sorted by {} {}", sortField, descending ? "DESC" : "ASC");
+        List<Product> products;
+        try {
+            // Por nombre sin distinguir mayusculas, como ordenaba antes el servicio en memoria
+            String query = "SELECT p FROM Product p" + orderBy(sortField, descending, true);
+            products = entityManager.createQuery(query, Product.class).getResultList();
+        } catch (Exception e) {
+            logger.error("Error while querying sorted products: {}", e.getMessage());
+            products = Collections.emptyList();
+        }
+        return products;
+    }
+
+    @Override
+    public List<Product> findProductsPage(String sortField, boolean descending, Object lastValue, Long lastId, int limit) {
+        logger.debug("Executing keyset query for products sorted by {} after id {} (limit {})", sortField, lastId, limit);
+        StringBuilder jpql = new StringBuilder("SELECT p FROM Product p");
+        boolean hasCursor = lastId != null;
+        if (hasCursor) {
+            String op = descending ? "<" : ">";
+            if ("idProduct".equals(checkSortable(sortField))) {
+                jpql.append(" WHERE p.idProduct ").append(op).append(" :lastId");
+            } else if (lastValue == null) {
+                // El cursor ya esta en la cola de NULLs (van al final en los dos sentidos): solo avanza el id
+                jpql.append(" WHERE p.").append(sortField).append(" IS NULL AND p.idProduct ").append(op).append(" :lastId");
+            } else {
+                jpql.append(" WHERE (p.").append(sortField).append(" ").append(op).append(" :lastValue")
+                        .append(" OR (p.").append(sortField).append(" = :lastValue AND p.idProduct ").append(op).append(" :lastId)")
+                        .append(" OR p.").append(sortField).append(" IS NULL)");
+            }
+        }
+        jpql.append(orderBy(sortField, descending, false));
+
+        TypedQuery<Product> query = entityManager.createQuery(jpql.toString(), Product.class)
+                .setMaxResults(limit);
+        if (hasCursor) {
+            query.setParameter("lastId", lastId);
+            if (!"idProduct".equals(sortField) && lastValue != null) {
+                query.setParameter("lastValue", lastValue);
+            }
+        }
+        return query.getResultList();
+    }
+
+    // Los NULL (priceProduct es nullable) van al final en ambos sentidos: el keyset de findProductsPage asume ese orden.
+    // La pagina por nombre usa la columna tal cual (indice unico, collation de la base); ignoreCase ordena por LOWER
+    private String orderBy(String sortField, boolean descending, boolean ignoreCase) {
+        String direction = descending ? " DESC" : " ASC";
+        String column = "p." + checkSortable(sortField);
+        if (ignoreCase && "nameProduct".equals(sortField)) {
+            column = "LOWER(" + column + ")";
+        }
+        String order = " ORDER BY " + column + direction;
+        if (!"idProduct".equals(sortField)) {
+            // idProduct como desempate estable para que el cursor no repita ni saltee filas
+            order += " NULLS LAST, p.idProduct" + direction;
+        }
+        return order;
+    }
+
+    private String checkSortable(String sortField) {
+        if (!SORTABLE_FIELDS.contains(sortField)) {
+            throw new IllegalArgumentException("Invalid sort field: " + sortField);
+        }
+        return sortField;
+    }
+
     @Transactional
     public boolean updateProduct(Product updatedProduct) {
         boolean success = false;
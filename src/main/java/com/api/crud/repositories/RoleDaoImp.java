@@ -10,7 +10,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Repository
 @Transactional
@@ -20,8 +22,17 @@ public class RoleDaoImp implements RoleDao {
 
     private static final Logger logger = LoggerFactory.getLogger(RoleDaoImp.class);
 
+    // Los roles casi no cambian: nombre -> id sin expiracion, se invalida en saveRole/deleteRoleById.
+    // Se guarda el par y no la entidad para no compartir una instancia mutable entre transacciones.
+    private final Map<String, Long> roleIdsByName = new ConcurrentHashMap<>();
+
     @Override
     public Optional<Role> findRoleByName(String roleName) {
+        Long cachedId = roleIdsByName.get(roleName);
+        if (cachedId != null) {
+            // Instancia con id: alcanza para asociarla a un usuario (la relacion no tiene cascade)
+            return Optional.of(new Role(cachedId, roleName));
+        }
         logger.debug("Executing query to fetch role by name: {}", roleName);
         Role role = null;
         try {
@@ -29,6 +40,7 @@ public class RoleDaoImp implements RoleDao {
                             "SELECT r FROM Role r WHERE r.nameRole = :roleName", Role.class)
                     .setParameter("roleName", roleName)
                     .getSingleResult();
+            roleIdsByName.put(role.getNameRole(), role.getIdRole());
         } catch (NoResultException e) {
             logger.error("Error while querying searching role: {}", e.getMessage());
         }
@@ -53,6 +65,7 @@ public class RoleDaoImp implements RoleDao {
     public void saveRole(Role role) {
         try {
             entityManager.persist(role);
+            roleIdsByName.remove(role.getNameRole());
             logger.debug("Query Role with ID {} was successfully saved", role.getIdRole());
         } catch (Exception e) {
             logger.error("Error query saving Role with ID {}: {}", role.getIdRole(), e.getMessage());
@@ -80,6 +93,7 @@ public class RoleDaoImp implements RoleDao {
         try{
             Role role = entityManager.find(Role.class, id);
             if (role != null) {
+                roleIdsByName.remove(role.getNameRole());
                 entityManager.remove(role);
                 response = true;
             }}catch (Exception e) {
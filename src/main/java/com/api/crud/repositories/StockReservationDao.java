@@ -0,0 +1,17 @@
+package com.api.crud.repositories;
+
+import com.api.crud.models.entity.StockReservation;
+import com.api.crud.models.enums.ReservationStatus;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockReservationDao {
+
+    void saveReservation(StockReservation reservation);
+
+    Optional<StockReservation> findReservationById(Long idReservation);
+
+    List<StockReservation> findReservationsByOrderId(Long orderId, ReservationStatus status);
+
+    boolean updateStatus(Long idReservation, ReservationStatus expected, ReservationStatus newStatus);
+}
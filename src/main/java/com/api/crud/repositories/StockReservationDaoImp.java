@@ -0,0 +1,57 @@
+package com.api.crud.repositories;
+
+import com.api.crud.models.entity.StockReservation;
+import com.api.crud.models.enums.ReservationStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Transactional
+public class StockReservationDaoImp implements StockReservationDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationDaoImp.class);
+
+    @Override
+    public void saveReservation(StockReservation reservation) {
+        logger.debug("Executing query to save reservation of {} units for product {}", reservation.getAmountReserved(), reservation.getProductId());
+        entityManager.persist(reservation);
+    }
+
+    @Override
+    public Optional<StockReservation> findReservationById(Long idReservation) {
+        return Optional.ofNullable(entityManager.find(StockReservation.class, idReservation));
+    }
+
+    @Override
+    public List<StockReservation> findReservationsByOrderId(Long orderId, ReservationStatus status) {
+        return entityManager.createQuery(
+                        "SELECT r FROM StockReservation r WHERE r.orderId = :orderId AND r.statusReservation = :status",
+                        StockReservation.class)
+                .setParameter("orderId", orderId)
+                .setParameter("status", status)
+                .getResultList();
+    }
+
+    // Transicion condicional: solo una llamada concurrente puede pasar la reserva de "expected" a "newStatus"
+    @Override
+    public boolean updateStatus(Long idReservation, ReservationStatus expected, ReservationStatus newStatus) {
+        logger.debug("Executing query to move reservation {} from {} to {}", idReservation, expected, newStatus);
+        int updated = entityManager.createQuery(
+                        "UPDATE StockReservation r SET r.statusReservation = :newStatus " +
+                                "WHERE r.idReservation = :id AND r.statusReservation = :expected")
+                .setParameter("newStatus", newStatus)
+                .setParameter("id", idReservation)
+                .setParameter("expected", expected)
+                .executeUpdate();
+        return updated == 1;
+    }
+}
@@ -1,5 +1,6 @@
 package com.api.crud.repositories;
 
+import com.api.crud.DTO.UserDTO;
 import com.api.crud.DTO.UserUpdateDTO;
 import com.api.crud.models.entity.UserModel;
 import org.springframework.data.domain.Page;
@@ -17,16 +18,22 @@ public interface UserDao {
 
     Optional<UserModel> findUserByEmail(String email);
 
+    Optional<Boolean> findActiveFlagByEmail(String email);
+
     UserModel updateUserByEmail(String email, UserUpdateDTO dto);
 
     boolean deleteUserByEmail(String email);
 
     List<UserModel> getUsers();
 
+    List<UserDTO> getUserSummaries();
+
     Page<UserModel> getUsersModel(Pageable pageable);
 
     void update(UserModel user);
 
+    void updatePassword(long userId, String encodedPassword);
+
     @Query("SELECT u FROM UserModel u WHERE u.id = :id")
     Optional<UserModel> findUserById(@Param("id") Long id);
 
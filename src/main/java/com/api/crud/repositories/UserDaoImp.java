@@ -1,5 +1,7 @@
 package com.api.crud.repositories;
 
+import com.api.crud.config.ReportingQuery;
+import com.api.crud.DTO.UserDTO;
 import com.api.crud.DTO.UserUpdateDTO;
 import com.api.crud.models.entity.UserModel;
 import com.api.crud.services.EmailService;
@@ -38,15 +40,11 @@ public class UserDaoImp implements UserDao {
 
             String subject = "Registration Confirmation";
             String body = "Hello " + user.getFirstName() + ",\n\nYour account has been created successfully.\n\nGreetings!";
-            boolean emailSent = emailService.sendEmail(user.getEmail(), subject, body);
-
-            if (!emailSent) {
-                logger.error("Failed to send confirmation email to {}, rolling back registration", user.getEmail());
-                throw new RuntimeException("Failed to send confirmation email, User not registered.");
-            }
+            // El mail se encola en la misma transaccion; un fallo de SMTP ya no revierte el registro
+            emailService.enqueueEmail(user.getEmail(), subject, body);
         } catch (Exception e) {
             logger.error("Error occurred while registering user {}: {}", user.getEmail(), e.getMessage(), e);
-            throw new RuntimeException("Failed to send confirmation email, User not registered.");
+            throw new RuntimeException("User not registered.");
         }
     }
 
@@ -90,6 +88,24 @@ public class UserDaoImp implements UserDao {
         return response;
     }
 
+    // Solo la columna active, sin hidratar el usuario ni hacer JOIN a los roles
+    @Override
+    public Optional<Boolean> findActiveFlagByEmail(String email) {
+        logger.debug("Executing query to find active flag for user with email: {}", email);
+        Optional<Boolean> response;
+        try {
+            response = entityManager
+                    .createQuery("SELECT u.active FROM UserModel u WHERE u.email = :email", Boolean.class)
+                    .setParameter("email", email)
+                    .getResultStream()
+                    .findFirst();
+        } catch (Exception e) {
+            logger.error("Unexpected error while querying active flag for user with email {}: {}", email, e.getMessage());
+            response = Optional.empty();
+        }
+        return response;
+    }
+
     @Override
     public UserModel updateUserByEmail(String email, UserUpdateDTO dto) {
         Optional<UserModel> optionalUser = findUserByEmail(email);
@@ -131,6 +147,7 @@ public class UserDaoImp implements UserDao {
     }
 
     @Override
+    @ReportingQuery
     public List<UserModel> getUsers() {
         logger.debug("Executing query to fetch user");
         List<UserModel> users;
@@ -144,7 +161,26 @@ public class UserDaoImp implements UserDao {
         return users;
     }
 
+    // Proyeccion directa al DTO: no se cargan entidades ni roles
     @Override
+    @ReportingQuery
+    public List<UserDTO> getUserSummaries() {
+        logger.debug("Executing query to fetch user summaries");
+        List<UserDTO> users;
+        try {
+            users = entityManager.createQuery(
+                            "SELECT new com.api.crud.DTO.UserDTO(u.id, u.firstName, u.lastName, u.email) FROM UserModel u",
+                            UserDTO.class)
+                    .getResultList();
+        } catch (Exception e) {
+            logger.error("Error while querying user summaries: {}", e.getMessage());
+            users = Collections.emptyList();
+        }
+        return users;
+    }
+
+    @Override
+    @ReportingQuery
     public Page<UserModel> getUsersModel(Pageable pageable) {
         logger.debug("Executing query to fetch users with pagination: page={}, size={}", pageable.getPageNumber(), pageable.getPageSize());
         String query = "FROM UserModel u ORDER BY u." + pageable.getSort().iterator().next().getProperty();
@@ -173,6 +209,16 @@ public class UserDaoImp implements UserDao {
         entityManager.merge(user);
     }
 
+    // UPDATE de una sola columna: el rehash del login no hace merge de la entidad completa
+    @Override
+    public void updatePassword(long userId, String encodedPassword) {
+        logger.debug("Executing query to update password hash of user {}", userId);
+        entityManager.createQuery("UPDATE UserModel u SET u.password = :password WHERE u.id = :id")
+                .setParameter("password", encodedPassword)
+                .setParameter("id", userId)
+                .executeUpdate();
+    }
+
     @Override
     public Optional<UserModel> findUserById(Long id) {
         logger.debug("Executing query to find user with ID: {}", id);
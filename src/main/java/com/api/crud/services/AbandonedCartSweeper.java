@@ -0,0 +1,133 @@
+package com.api.crud.services;
+
+import com.api.crud.repositories.CartDao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Barre los carritos abandonados en segundo plano. Recorre los ids por keyset (idCart > ultimo visto) en
+// paginas de chunk-size y cada pagina se procesa en su propia transaccion con un UPDATE/DELETE ... IN,
+// repartidas en un pool acotado. Primero desactiva los carritos activos sin cambios en idle-days y despues,
+// si purge-after-days > 0, borra los inactivos (con sus items) que llevan ese tiempo sin tocarse.
+@Component
+public class AbandonedCartSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbandonedCartSweeper.class);
+
+    private final CartDao cartDao;
+    private final ThreadPoolTaskExecutor executor;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int idleDays;
+    private final int purgeAfterDays;
+    private final Counter deactivatedCounter;
+    private final Counter purgedCounter;
+    private final Timer sweepTimer;
+
+    public AbandonedCartSweeper(CartDao cartDao,
+                                MeterRegistry meterRegistry,
+                                @Value("${cart.sweeper.enabled:true}") boolean enabled,
+                                @Value("${cart.sweeper.chunk-size:500}") int chunkSize,
+                                @Value("${cart.sweeper.parallelism:2}") int parallelism,
+                                @Value("${cart.sweeper.idle-days:30}") int idleDays,
+                                @Value("${cart.sweeper.purge-after-days:0}") int purgeAfterDays) {
+        this.cartDao = cartDao;
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parallelism = Math.max(1, parallelism);
+        this.idleDays = idleDays;
+        this.purgeAfterDays = purgeAfterDays;
+        this.deactivatedCounter = Counter.builder("cart.sweeper.carts")
+                .tag("action", "deactivated")
+                .register(meterRegistry);
+        this.purgedCounter = Counter.builder("cart.sweeper.carts")
+                .tag("action", "purged")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("cart.sweeper.run").register(meterRegistry);
+
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(this.parallelism);
+        this.executor.setMaxPoolSize(this.parallelism);
+        this.executor.setQueueCapacity(this.parallelism);
+        this.executor.setThreadNamePrefix("cart-sweeper-");
+        this.executor.initialize();
+    }
+
+    @Scheduled(cron = "${cart.sweeper.cron:0 30 3 * * *}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        sweepTimer.record(() -> {
+            try {
+                int deactivated = sweepPhase(true, idleDays, cartDao::deactivateCarts);
+                deactivatedCounter.increment(deactivated);
+
+                int purged = 0;
+                if (purgeAfterDays > 0) {
+                    purged = sweepPhase(false, purgeAfterDays, cartDao::purgeCarts);
+                    purgedCounter.increment(purged);
+                }
+                logger.info("Abandoned cart sweep finished: {} deactivated, {} purged", deactivated, purged);
+            } catch (Exception e) {
+                logger.error("Error sweeping abandoned carts: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    private int sweepPhase(boolean active, int days, ChunkAction action) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(days);
+        LocalDate createdBefore = cutoff.toLocalDate();
+        Long afterId = 0L;
+        int affected = 0;
+
+        List<CompletableFuture<Integer>> inFlight = new ArrayList<>();
+        while (true) {
+            List<Long> ids = cartDao.findStaleCartIds(active, createdBefore, cutoff, afterId, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            // La escritura recibe el mismo criterio que la lectura y lo vuelve a aplicar en la base
+            inFlight.add(CompletableFuture.supplyAsync(() -> action.apply(ids, createdBefore, cutoff), executor));
+
+            // Como mucho "parallelism" chunks en vuelo: la lectura del keyset no se adelanta al pool
+            if (inFlight.size() >= parallelism) {
+                affected += join(inFlight);
+            }
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+        return affected + join(inFlight);
+    }
+
+    private int join(List<CompletableFuture<Integer>> inFlight) {
+        int affected = inFlight.stream().mapToInt(CompletableFuture::join).sum();
+        inFlight.clear();
+        return affected;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface ChunkAction {
+        int apply(List<Long> cartIds, LocalDate createdBefore, LocalDateTime modifiedBefore);
+    }
+}
@@ -1,6 +1,7 @@
 package com.api.crud.services;
 
 import com.api.crud.DTO.CartItemDTO;
+import com.api.crud.mappers.CartMapper;
 import com.api.crud.models.entity.Cart;
 import com.api.crud.models.entity.CartItem;
 import com.api.crud.models.entity.Product;
@@ -10,7 +11,6 @@ import com.api.crud.repositories.CartItemDao;
 import com.api.crud.repositories.ProductDao;
 import com.api.crud.repositories.UserDao;
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
@@ -20,7 +20,6 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class CartItemService {
@@ -37,11 +36,10 @@ public class CartItemService {
     @Autowired
     private UserDao userDao;
 
-    @Autowired
-    private ModelMapper modelMapper;
-
     private static final Logger logger = LoggerFactory.getLogger(CartItemService.class);
 
+    // Cada mutacion de items aplica su diferencia a carts.totalCart / itemCount con un UPDATE relativo,
+    // en la misma transaccion y con la fila del item bloqueada mientras se calcula
     @Transactional
     public void addItemToCart(Long userId, Long productId, int amount) {
         Cart cart = cartDao.findActiveCartByUserId(userId)
@@ -52,21 +50,22 @@ public class CartItemService {
                     newCart.setUserCart(user);
                     newCart.setActive(true);
                     newCart.setCreationDate(LocalDate.now());
-                    cartDao.saveCart(newCart);
-                    return newCart;
+                    return cartDao.saveCart(newCart);
                 });
 
         Product product = productDao.findProductById(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Producto no encontrado"));
 
-        Optional<CartItem> existingCartItem = cartItemDao.findByCartAndProductId(cart.getIdCart(), productId);
+        Optional<CartItem> existingCartItem = cartItemDao.findByCartAndProductIdForUpdate(cart.getIdCart(), productId);
         BigDecimal price = product.getPriceProduct().multiply(BigDecimal.valueOf(amount));
 
         if (existingCartItem.isPresent()) {
             CartItem cartItem = existingCartItem.get();
+            BigDecimal before = lineTotal(cartItem);
             cartItem.setAmountCartItem(cartItem.getAmountCartItem() + amount);
             cartItem.setPriceCartItem(cartItem.getPriceCartItem().add(price));
             cartItemDao.saveCartItem(cartItem);
+            cartDao.applyTotalsDelta(cart.getIdCart(), lineTotal(cartItem).subtract(before), 0);
         } else {
             CartItem newCartItem = new CartItem();
             newCartItem.setCart(cart);
@@ -74,19 +73,17 @@ public class CartItemService {
             newCartItem.setAmountCartItem(amount);
             newCartItem.setPriceCartItem(price);
             cartItemDao.saveCartItem(newCartItem);
+            cartDao.applyTotalsDelta(cart.getIdCart(), lineTotal(newCartItem), 1);
         }
     }
 
     public List<CartItemDTO> findItemsByCartId(Long cartId) {
-        return cartItemDao.findItemsByCartId(cartId)
-                .stream()
-                .map(item -> modelMapper.map(item, CartItemDTO.class))
-                .collect(Collectors.toList());
+        return cartItemDao.findItemDTOsByCartId(cartId);
     }
 
     public Optional<CartItemDTO> findCartItemById(Long cartItemId) {
         return cartItemDao.findCartItemById(cartItemId)
-                .map(item -> modelMapper.map(item, CartItemDTO.class));
+                .map(CartMapper::toItemDTO);
     }
 
     @Transactional
@@ -94,19 +91,22 @@ public class CartItemService {
         Cart cart = cartDao.findCartById(cartId)
                 .orElseThrow(() -> new IllegalArgumentException("Carrito no encontrado"));
 
-        CartItem cartItem = cartItemDao.findCartItemById(cartItemId)
+        CartItem cartItem = cartItemDao.findCartItemByIdForUpdate(cartItemId)
                 .orElseThrow(() -> new IllegalArgumentException("Item no encontrado en el carrito"));
 
         if (!cartItem.getCart().getIdCart().equals(cartId)) {
             throw new IllegalArgumentException("El item no pertenece a este carrito.");
         }
 
+        BigDecimal removed = lineTotal(cartItem);
         cartItemDao.removeCartItem(cartItemId);
+        cartDao.applyTotalsDelta(cartId, removed.negate(), -1);
     }
 
+    @Transactional
     public void updateCartItemAmount(Long cartItemId, int newAmount) {
         try {
-            cartItemDao.updateCartItemAmount(cartItemId, newAmount);
+            changeAmount(cartItemId, () -> cartItemDao.updateCartItemAmount(cartItemId, newAmount));
         } catch (Exception e) {
             logger.error("Error al actualizar la cantidad del artículo: ", e);
             throw new RuntimeException("No se pudo actualizar la cantidad del artículo");
@@ -114,40 +114,43 @@ public class CartItemService {
     }
 
     public List<CartItemDTO> getItemsFullByCartId(Long cartId) {
-        return cartItemDao.findItemsByCartId(cartId)
-                .stream()
-                .map(this::toFullDTO)
-                .collect(Collectors.toList());
+        return cartItemDao.findItemDTOsByCartId(cartId);
     }
 
     private CartItemDTO mapToDTO(CartItem cartItem) {
-        CartItemDTO dto = modelMapper.map(cartItem, CartItemDTO.class);
-        dto.setCartId(cartItem.getCart().getIdCart());
-        dto.setProductId(cartItem.getProductCartItem().getIdProduct());
-        // Aquí podrías agregar más info del producto si querés mostrarlo en el DTO
-        return dto;
+        return CartMapper.toItemDTO(cartItem);
     }
 
     //Para mostrarle al cliente
     public CartItemDTO toFullDTO(CartItem cartItem) {
-        return new CartItemDTO(
-                cartItem.getIdCartItem(),
-                cartItem.getCart().getIdCart(),
-                cartItem.getProductCartItem().getIdProduct(),
-                cartItem.getProductCartItem().getNameProduct(),
-                cartItem.getProductCartItem().getPriceProduct(),
-                cartItem.getProductCartItem().getImageUrl(),
-                cartItem.getAmountCartItem(),
-                cartItem.getPriceCartItem()
-        );
+        return CartMapper.toItemDTO(cartItem);
     }
 
+    @Transactional
     public void increaseItemAmount(Long cartItemId, int increment) {
-        cartItemDao.increaseCartItemAmount(cartItemId, increment);
+        changeAmount(cartItemId, () -> cartItemDao.increaseCartItemAmount(cartItemId, increment));
     }
 
+    @Transactional
     public void decreaseItemAmount(Long cartItemId, int decrement) {
-        cartItemDao.decreaseCartItemAmount(cartItemId, decrement);
+        changeAmount(cartItemId, () -> cartItemDao.decreaseCartItemAmount(cartItemId, decrement));
+    }
+
+    // Bloquea el item, aplica el cambio del DAO sobre la misma instancia gestionada y lleva la diferencia al carrito
+    private void changeAmount(Long cartItemId, Runnable change) {
+        cartItemDao.findCartItemByIdForUpdate(cartItemId).ifPresent(cartItem -> {
+            BigDecimal before = lineTotal(cartItem);
+            change.run();
+            BigDecimal delta = lineTotal(cartItem).subtract(before);
+            if (delta.signum() != 0) {
+                cartDao.applyTotalsDelta(cartItem.getCart().getIdCart(), delta, 0);
+            }
+        });
+    }
+
+    // Misma cuenta que calculateCartTotal: priceCartItem * amountCartItem
+    private BigDecimal lineTotal(CartItem cartItem) {
+        return cartItem.getPriceCartItem().multiply(BigDecimal.valueOf(cartItem.getAmountCartItem()));
     }
 
 }
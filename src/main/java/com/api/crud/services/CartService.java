@@ -1,13 +1,19 @@
 package com.api.crud.services;
 
+import com.api.crud.DTO.CartBatchDTO;
+import com.api.crud.DTO.CartBatchItemDTO;
 import com.api.crud.DTO.CartDTO;
 import com.api.crud.DTO.CartItemDTO;
+import com.api.crud.config.ReportingQuery;
+import com.api.crud.mappers.CartMapper;
 import com.api.crud.models.entity.Cart;
 import com.api.crud.models.entity.CartItem;
+import com.api.crud.models.entity.Product;
 import com.api.crud.repositories.CartDao;
 import com.api.crud.repositories.CartItemDao;
 import com.api.crud.repositories.ProductDao;
 import com.api.crud.repositories.UserDao;
+import jakarta.transaction.Transactional;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -16,8 +22,14 @@ import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -48,36 +60,49 @@ public class CartService {
     private static final Logger logger = LoggerFactory.getLogger(CartService.class);
 
 
+    @Transactional
     public void saveCart(CartDTO cartDTO) {
         try {
             Cart cart = modelMapper.map(cartDTO, Cart.class);
-            cartDao.saveCart(cart);
+            cart.setTotalCart(BigDecimal.ZERO);
+            cart.setItemCount(0);
+            Cart saved = cartDao.saveCart(cart);
+            // Los items que vinieran en el DTO se persisten en cascada; los totales se calculan desde la base
+            cartDao.recalculateTotals(saved.getIdCart());
         } catch (Exception e) {
             logger.error("Error guardando el carrito: ", e);
             throw new RuntimeException("No se pudo guardar el carrito");
         }
     }
 
+    // Sin open-in-view los items se mapean dentro de la transaccion del servicio. Los listados la abren
+    // marcados como @ReportingQuery para que la conexion salga del pool reporting y no del OLTP
+    @ReportingQuery
+    @Transactional
     public List<CartDTO> getCarts() {
         return cartDao.getCarts()
                 .stream()
-                .map(cart -> modelMapper.map(cart, CartDTO.class))
+                .map(cart -> CartMapper.toDTO(cart))
                 .collect(Collectors.toList());
     }
 
+    @Transactional
     public Optional<CartDTO> findCartByUserEmail(String email) {
         return cartDao.findCartByUserEmail(email)
-                .map(cart -> modelMapper.map(cart, CartDTO.class));
+                .map(cart -> CartMapper.toDTO(cart));
     }
 
+    // Los items se mapean dentro de la transaccion: no depende de open-in-view
+    @Transactional
     public Optional<CartDTO> findCartById(Long idCart) {
         return cartDao.findCartById(idCart)
-                .map(cart -> modelMapper.map(cart, CartDTO.class));
+                .map(cart -> CartMapper.toDTO(cart));
     }
 
+    @Transactional
     public Optional<CartDTO> findCartByUserId(Long userId) {
         return cartDao.findCartByUserId(userId)
-                .map(cart -> modelMapper.map(cart, CartDTO.class));
+                .map(cart -> CartMapper.toDTO(cart));
     }
 
     public void deleteCartById(Long idCart) {
@@ -91,40 +116,107 @@ public class CartService {
 
     public Optional<CartItemDTO> findByCartAndProductId(Long cartId, Long productId) {
         return cartItemDao.findByCartAndProductId(cartId, productId)
-                .map(item -> modelMapper.map(item, CartItemDTO.class));
+                .map(item -> CartMapper.toItemDTO(item));
     }
 
+    @Transactional
     public Optional<CartDTO> findActiveCartByUserId(Long userId) {
         return cartDao.findActiveCartByUserId(userId)
-                .map(cart -> modelMapper.map(cart, CartDTO.class));
+                .map(cart -> CartMapper.toDTO(cart));
     }
 
+    @ReportingQuery
+    @Transactional
     public List<CartDTO> getCartsByDateRange(LocalDate start, LocalDate end) {
         return cartDao.getCartsByDateRange(start, end)
                 .stream()
-                .map(cart -> modelMapper.map(cart, CartDTO.class))
+                .map(cart -> CartMapper.toDTO(cart))
                 .collect(Collectors.toList());
     }
 
+    @ReportingQuery
+    @Transactional
     public List<CartDTO> getCartsWithMoreThanNItems(int minItems) {
         return cartDao.getCartsWithMoreThanNItems(minItems)
                 .stream()
-                .map(cart -> modelMapper.map(cart, CartDTO.class))
+                .map(cart -> CartMapper.toDTO(cart))
                 .collect(Collectors.toList());
     }
 
+    // Total desnormalizado en carts: una lectura por PK, sin cargar los items
     public BigDecimal getCartTotal(Long cartId) {
-        List<CartItem> items = cartItemDao.findItemsByCartId(cartId);
-        return items.stream()
-                .map(item -> item.getPriceCartItem().multiply(BigDecimal.valueOf(item.getAmountCartItem())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return cartDao.findCartTotal(cartId).orElse(BigDecimal.ZERO);
     }
 
+    // Un DELETE para todos los items y un UPDATE para dejar los totales en cero
+    @Transactional
     public void clearCart(Long cartId) {
-        List<CartItem> items = cartItemDao.findItemsByCartId(cartId);
-        for (CartItem item : items) {
-            cartItemDao.removeCartItem(item.getIdCartItem());
+        cartDao.clearCart(cartId);
+        cartDao.recalculateTotals(cartId);
+        logger.info("Cart {} cleared", cartId);
+    }
+
+    // Aplica un lote de cambios en una sola transaccion con sentencias por conjunto:
+    // DELETE ... IN para las bajas, un SELECT ... IN de productos e items existentes, UPDATE/INSERT en batch
+    // para las altas y modificaciones, y un unico recalculo de los totales al final.
+    @Transactional
+    public void applyBatch(Long cartId, CartBatchDTO batch) {
+        Cart cart = cartDao.findCartById(cartId)
+                .orElseThrow(() -> new IllegalArgumentException("Carrito no encontrado"));
+
+        Map<Long, Integer> upserts = new LinkedHashMap<>();
+        Set<Long> removals = new HashSet<>(batch.getRemovals() != null ? batch.getRemovals() : List.of());
+        for (CartBatchItemDTO upsert : batch.getUpserts() != null ? batch.getUpserts() : List.<CartBatchItemDTO>of()) {
+            if (upsert.getProductId() == null) {
+                throw new IllegalArgumentException("productId es obligatorio en cada upsert");
+            }
+            if (upsert.getAmount() <= 0) {
+                removals.add(upsert.getProductId());
+                upserts.remove(upsert.getProductId());
+            } else {
+                upserts.put(upsert.getProductId(), upsert.getAmount());
+                removals.remove(upsert.getProductId());
+            }
+        }
+
+        if (batch.isClear()) {
+            cartDao.clearCart(cartId);
+        } else if (!removals.isEmpty()) {
+            cartItemDao.deleteItemsByProductIds(cartId, removals);
         }
+
+        if (!upserts.isEmpty()) {
+            Map<Long, Product> products = productDao.findProductsByIds(upserts.keySet()).stream()
+                    .collect(Collectors.toMap(Product::getIdProduct, Function.identity()));
+            upserts.keySet().stream()
+                    .filter(productId -> !products.containsKey(productId))
+                    .findFirst()
+                    .ifPresent(productId -> {
+                        throw new IllegalArgumentException("Producto no encontrado: " + productId);
+                    });
+
+            Map<Long, CartItem> existing = batch.isClear() ? Map.of()
+                    : cartItemDao.findItemsByCartAndProductIds(cartId, upserts.keySet()).stream()
+                    .collect(Collectors.toMap(item -> item.getProductCartItem().getIdProduct(), Function.identity()));
+
+            List<CartItem> newItems = new ArrayList<>();
+            upserts.forEach((productId, amount) -> {
+                Product product = products.get(productId);
+                BigDecimal price = product.getPriceProduct().multiply(BigDecimal.valueOf(amount));
+                CartItem item = existing.get(productId);
+                if (item != null) {
+                    // Entidad gestionada: el UPDATE sale en el flush, agrupado con los demas
+                    item.setAmountCartItem(amount);
+                    item.setPriceCartItem(price);
+                } else {
+                    newItems.add(new CartItem(null, cart, product, amount, price));
+                }
+            });
+            cartItemDao.persistCartItems(newItems);
+        }
+
+        cartDao.recalculateTotals(cartId);
+        logger.info("Applied batch to cart {}: clear={}, {} upserts, {} removals", cartId, batch.isClear(), upserts.size(), removals.size());
     }
 
 
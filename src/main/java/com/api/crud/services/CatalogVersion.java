@@ -0,0 +1,162 @@
+package com.api.crud.services;
+
+import com.api.crud.models.entity.CatalogRevision;
+import com.api.crud.repositories.CatalogRevisionDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.ZoneId;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Version del catalogo para los GET condicionales de ProductController. La fuente es la fila catalog_revision,
+// compartida por todas las instancias: una escritura en cualquiera de ellas vence los ETag de todas.
+// Cada instancia relee la fila como mucho cada refresh-ms (una lectura por PK, no el listado), asi que el
+// atraso entre instancias queda acotado a ese intervalo. Cuando la revision cambia por una escritura de
+// otra instancia tambien se vacia la cache local del catalogo, que no se entera de esas escrituras.
+// El ETag es debil (W/): los listados traen el stock y los cambios que no cruzan cero se juntan en un bump
+// cada stock-bump-interval-ms, asi que durante esa ventana el mismo ETag puede cubrir conteos de stock distintos.
+// Lo que cambia que productos aparecen (altas, bajas, precios, stock que cruza cero) vence el ETag enseguida.
+@Component
+public class CatalogVersion {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogVersion.class);
+
+    private final CatalogRevisionDao revisionDao;
+    private final ProductCatalogCache catalogCache;
+    private final long refreshNanos;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicBoolean stockChanged = new AtomicBoolean();
+    private final AtomicBoolean bumpPending = new AtomicBoolean();
+    private final Executor executor;
+
+    private volatile Snapshot current;
+    private volatile long readAt;
+
+    public CatalogVersion(CatalogRevisionDao revisionDao,
+                          ProductCatalogCache catalogCache,
+                          @Qualifier("applicationTaskExecutor") Executor executor,
+                          @Value("${catalog.version.refresh-ms:1000}") long refreshMs) {
+        this.revisionDao = revisionDao;
+        this.executor = executor;
+        this.catalogCache = catalogCache;
+        this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshMs);
+    }
+
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        if (snapshot == null || System.nanoTime() - readAt > refreshNanos) {
+            snapshot = refresh();
+        }
+        return snapshot;
+    }
+
+    public String etag(Snapshot snapshot) {
+        return "W/\"" + snapshot.version() + "\"";
+    }
+
+    // Dentro de una transaccion el UPDATE se confirma junto con la escritura del catalogo.
+    // La copia local se descarta al terminar, para que esta instancia vea el cambio en el proximo GET
+    public void bump() {
+        revisionDao.increment();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    readAt = 0;
+                }
+            });
+        } else {
+            readAt = 0;
+        }
+    }
+
+    // Para escrituras dentro de la transaccion de un pedido: el UPDATE de catalog_revision no se hace ahi
+    // (todos los pedidos harian cola en esa fila), sino despues del commit en otro hilo. Varios pedidos que
+    // confirman mientras hay un bump pendiente quedan cubiertos por ese mismo bump
+    public void bumpAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestBump();
+                }
+            });
+        } else {
+            requestBump();
+        }
+    }
+
+    // Cambios de stock que no sacan ni agregan productos a /FindInStock: se juntan en un bump periodico
+    // en lugar de vencer los ETag con cada pedido
+    public void markStockChanged() {
+        stockChanged.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.version.stock-bump-interval-ms:30000}")
+    public void bumpIfStockChanged() {
+        if (stockChanged.getAndSet(false)) {
+            try {
+                bump();
+            } catch (Exception e) {
+                stockChanged.set(true);
+                logger.error("Error bumping catalog version: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void requestBump() {
+        if (bumpPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                bumpPending.set(false);
+                try {
+                    bump();
+                } catch (Exception e) {
+                    // Queda para el bump periodico
+                    stockChanged.set(true);
+                    logger.error("Error bumping catalog version: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    // Un solo hilo relee la fila; los demas siguen con la copia vigente mientras tanto
+    private Snapshot refresh() {
+        if (!refreshLock.tryLock()) {
+            Snapshot snapshot = current;
+            if (snapshot != null) {
+                return snapshot;
+            }
+            refreshLock.lock();
+        }
+        try {
+            Snapshot previous = current;
+            Snapshot snapshot = revisionDao.findCurrent()
+                    .map(this::toSnapshot)
+                    .orElse(new Snapshot(0, 0));
+            if (previous != null && previous.version() != snapshot.version()) {
+                catalogCache.invalidateAll();
+                logger.debug("Catalog revision changed {} -> {}", previous.version(), snapshot.version());
+            }
+            current = snapshot;
+            readAt = System.nanoTime();
+            return snapshot;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Snapshot toSnapshot(CatalogRevision revision) {
+        return new Snapshot(revision.getRevision(),
+                revision.getLastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    public record Snapshot(long version, long lastModified) {}
+}
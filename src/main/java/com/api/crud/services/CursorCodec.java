@@ -0,0 +1,31 @@
+package com.api.crud.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Cursores opacos para paginacion keyset: los valores de la ultima fila se serializan y se codifican en Base64 URL-safe.
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "\u001F";
+
+    private CursorCodec() {}
+
+    public static String encode(String... parts) {
+        String raw = String.join(SEPARATOR, parts);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int expectedParts) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != expectedParts) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,165 @@
+package com.api.crud.services;
+
+import com.api.crud.models.entity.EmailOutbox;
+import com.api.crud.repositories.EmailOutboxDao;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Despacha los mails del outbox en segundo plano. Cada pasada reclama un lote, lo parte en grupos que
+// se mandan por una sola conexion SMTP (JavaMailSender.send(varargs)) y los grupos corren en un pool acotado.
+// Los que fallan se reintentan con backoff exponencial hasta max-attempts.
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final EmailOutboxDao emailOutboxDao;
+    private final EmailService emailService;
+    private final JavaMailSender mailSender;
+    private final AsyncTaskExecutor executor;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int messagesPerConnection;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    public EmailOutboxDispatcher(EmailOutboxDao emailOutboxDao,
+                                 EmailService emailService,
+                                 JavaMailSender mailSender,
+                                 @Value("${email.outbox.enabled:true}") boolean enabled,
+                                 @Value("${email.outbox.batch-size:100}") int batchSize,
+                                 @Value("${email.outbox.messages-per-connection:20}") int messagesPerConnection,
+                                 @Value("${email.outbox.senders:4}") int senders,
+                                 @Value("${email.outbox.max-attempts:6}") int maxAttempts,
+                                 @Value("${email.outbox.backoff-initial-seconds:30}") long initialBackoffSeconds,
+                                 @Value("${email.outbox.backoff-max-seconds:3600}") long maxBackoffSeconds,
+                                 @Value("${email.outbox.lease-seconds:300}") long leaseSeconds,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.emailOutboxDao = emailOutboxDao;
+        this.emailService = emailService;
+        this.mailSender = mailSender;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.messagesPerConnection = Math.max(1, messagesPerConnection);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+
+        if (virtualThreads) {
+            // Un hilo virtual por grupo; el limite de concurrencia sigue acotando las conexiones SMTP a "senders"
+            SimpleAsyncTaskExecutor virtualExecutor = new SimpleAsyncTaskExecutor("email-outbox-");
+            virtualExecutor.setVirtualThreads(true);
+            virtualExecutor.setConcurrencyLimit(senders);
+            this.executor = virtualExecutor;
+        } else {
+            ThreadPoolTaskExecutor poolExecutor = new ThreadPoolTaskExecutor();
+            poolExecutor.setCorePoolSize(senders);
+            poolExecutor.setMaxPoolSize(senders);
+            poolExecutor.setQueueCapacity(Math.max(1, batchSize / this.messagesPerConnection + 1));
+            poolExecutor.setThreadNamePrefix("email-outbox-");
+            poolExecutor.initialize();
+            this.executor = poolExecutor;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> claimed = emailOutboxDao.claimBatch(batchSize, now, now.plus(lease));
+            if (claimed.isEmpty()) {
+                return;
+            }
+
+            List<CompletableFuture<Void>> sends = new ArrayList<>();
+            for (int from = 0; from < claimed.size(); from += messagesPerConnection) {
+                List<EmailOutbox> chunk = claimed.subList(from, Math.min(from + messagesPerConnection, claimed.size()));
+                sends.add(CompletableFuture.runAsync(() -> sendChunk(chunk), executor));
+            }
+            // Se espera al lote completo antes de reclamar el siguiente: la cola del pool nunca se desborda.
+            // Bloquea este hilo del scheduler, por eso spring.task.scheduling.pool.size deja uno por tarea
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+            logger.info("Email outbox pass dispatched {} emails", claimed.size());
+        } catch (Exception e) {
+            logger.error("Error dispatching email outbox: {}", e.getMessage(), e);
+        }
+    }
+
+    private void sendChunk(List<EmailOutbox> chunk) {
+        Map<SimpleMailMessage, EmailOutbox> byMessage = new IdentityHashMap<>();
+        for (EmailOutbox email : chunk) {
+            byMessage.put(emailService.buildMessage(email.getRecipient(), email.getSubject(), email.getBody()), email);
+        }
+
+        List<Long> sent = new ArrayList<>();
+        try {
+            mailSender.send(byMessage.keySet().toArray(SimpleMailMessage[]::new));
+            chunk.forEach(email -> sent.add(email.getIdEmail()));
+        } catch (MailSendException e) {
+            // Algunos mensajes pudieron salir: solo se reintentan los que informa failedMessages
+            Map<Object, Exception> failed = e.getFailedMessages();
+            byMessage.forEach((message, email) -> {
+                Exception cause = failed.get(message);
+                if (cause == null && !failed.isEmpty()) {
+                    sent.add(email.getIdEmail());
+                } else {
+                    scheduleRetry(email, cause != null ? cause.getMessage() : e.getMessage());
+                }
+            });
+        } catch (MailException e) {
+            chunk.forEach(email -> scheduleRetry(email, e.getMessage()));
+        }
+
+        emailOutboxDao.markSent(sent, LocalDateTime.now());
+    }
+
+    private void scheduleRetry(EmailOutbox email, String error) {
+        int attempts = email.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            logger.error("Giving up on email {} to {} after {} attempts: {}", email.getIdEmail(), email.getRecipient(), attempts, error);
+            emailOutboxDao.markFailed(email.getIdEmail(), attempts, error);
+        } else {
+            LocalDateTime nextAttempt = LocalDateTime.now().plus(backoff(attempts));
+            logger.warn("Email {} to {} failed (attempt {}), retrying at {}: {}", email.getIdEmail(), email.getRecipient(), attempts, nextAttempt, error);
+            emailOutboxDao.markRetry(email.getIdEmail(), attempts, nextAttempt, error);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ThreadPoolTaskExecutor poolExecutor) {
+            poolExecutor.shutdown();
+        } else if (executor instanceof SimpleAsyncTaskExecutor virtualExecutor) {
+            virtualExecutor.close();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.api.crud.services;
 
+import com.api.crud.models.entity.EmailOutbox;
+import com.api.crud.repositories.EmailOutboxDao;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -10,21 +12,32 @@ public class EmailService {
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private EmailOutboxDao emailOutboxDao;
+
     public boolean sendEmail(String to, String subject, String body) {
         boolean response = false;
 
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(body);
-            message.setFrom("magosh90@gmail.com");
-
-            mailSender.send(message);
+            mailSender.send(buildMessage(to, subject, body));
             response = true;
         } catch (Exception e) {
             System.out.println("Error sending email: " + e.getMessage());
         }
         return response;
     }
-}
\ No newline at end of file
+
+    // Deja el mail en el outbox dentro de la transaccion actual; lo envia EmailOutboxDispatcher despues del commit
+    public void enqueueEmail(String to, String subject, String body) {
+        emailOutboxDao.saveEmail(new EmailOutbox(to, subject, body));
+    }
+
+    public SimpleMailMessage buildMessage(String to, String subject, String body) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setText(body);
+        message.setFrom("magosh90@gmail.com");
+        return message;
+    }
+}
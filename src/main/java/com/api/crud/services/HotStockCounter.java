@@ -0,0 +1,278 @@
+package com.api.crud.services;
+
+import com.api.crud.models.enums.StockUpdate;
+import com.api.crud.repositories.ProductDao;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Frente en memoria para SKUs calientes: se descuenta de la base un lote de stock por vez y las reservas
+// se sirven desde contadores repartidos en stripes, sin pelear por el lock de la fila del producto.
+// El lote se toma con la conexion de la transaccion del pedido (no se pide una segunda conexion al pool)
+// y el sobrante pasa al contador recien cuando esa transaccion confirma. El sobrante se devuelve a la base en cada flush.
+// Un valor absoluto de stock (ajuste del admin) pasa por overwrite: descarta lo que habia en memoria y cambia la
+// generacion del contador, asi ni el flush ni los commits/rollbacks en vuelo suman unidades de antes del ajuste.
+@Component
+public class HotStockCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotStockCounter.class);
+
+    private final ProductDao productDao;
+    private final CatalogVersion catalogVersion;
+    private final TransactionTemplate requiresNew;
+    private final Set<Long> hotSkus;
+    private final int batchSize;
+    private final int stripes;
+    private final Map<Long, Allotment> allotments = new ConcurrentHashMap<>();
+
+    public HotStockCounter(ProductDao productDao,
+                           CatalogVersion catalogVersion,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${stock.hot-skus:}") Set<Long> hotSkus,
+                           @Value("${stock.hot-batch-size:20}") int batchSize,
+                           @Value("${stock.hot-stripes:8}") int stripes) {
+        this.productDao = productDao;
+        this.catalogVersion = catalogVersion;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.hotSkus = Set.copyOf(hotSkus);
+        this.batchSize = batchSize;
+        this.stripes = stripes;
+    }
+
+    public boolean isHot(Long productId) {
+        return hotSkus.contains(productId);
+    }
+
+    public boolean tryTake(Long productId, int amount) {
+        Allotment allotment = allotments.computeIfAbsent(productId, id -> new Allotment(stripes));
+        int generation = allotment.generation.get();
+        boolean taken = allotment.take(amount);
+
+        boolean fromAllotment = taken;
+
+        if (!taken) {
+            allotment.refillLock.lock();
+            try {
+                generation = allotment.generation.get();
+                // Ningun stripe alcanza solo: antes de ir a la base se juntan unidades de varios
+                fromAllotment = allotment.take(amount) || allotment.takeAcross(amount);
+                taken = fromAllotment || refill(productId, allotment, amount);
+            } finally {
+                allotment.refillLock.unlock();
+            }
+        }
+
+        // Lo que salio de un refill vuelve a la base con el rollback de la propia transaccion
+        if (fromAllotment) {
+            giveBackOnRollback(allotment, generation, amount);
+        }
+        return taken;
+    }
+
+    // Escribe un stock absoluto para un SKU caliente. Con el lock de refill tomado no entra otro lote ni corre
+    // el flush; lo que quedaba en memoria ya estaba descontado de la base y el nuevo valor lo reemplaza.
+    // Si la escritura no se confirma, las unidades descartadas vuelven al contador
+    public boolean overwrite(Long productId, BooleanSupplier write) {
+        Allotment allotment = allotments.computeIfAbsent(productId, id -> new Allotment(stripes));
+        allotment.refillLock.lock();
+        try {
+            allotment.generation.incrementAndGet();
+            int discarded = allotment.drain();
+            boolean written;
+            try {
+                written = write.getAsBoolean();
+            } catch (RuntimeException e) {
+                allotment.add(discarded);
+                throw e;
+            }
+            if (!written) {
+                allotment.add(discarded);
+            } else if (discarded > 0) {
+                addOnRollback(allotment, discarded);
+            }
+            logger.debug("Overwrote stock of hot product {}, discarded {} units in memory", productId, discarded);
+            return written;
+        } finally {
+            allotment.refillLock.unlock();
+        }
+    }
+
+    public void giveBack(Long productId, int amount) {
+        allotments.computeIfAbsent(productId, id -> new Allotment(stripes)).add(amount);
+    }
+
+    // Bajo el lock de refill: un overwrite no puede quedar en medio del drain y la devolucion a la base
+    @Scheduled(fixedDelayString = "${stock.flush-interval-ms:5000}")
+    @PreDestroy
+    public void flush() {
+        allotments.forEach((productId, allotment) -> {
+            allotment.refillLock.lock();
+            try {
+                int surplus = allotment.drain();
+                if (surplus > 0) {
+                    try {
+                        requiresNew.executeWithoutResult(status -> {
+                            if (productDao.releaseStock(productId, surplus) == StockUpdate.CROSSED_ZERO) {
+                                catalogVersion.bumpAfterCommit();
+                            }
+                        });
+                        logger.debug("Flushed {} unreserved units of hot product {}", surplus, productId);
+                    } catch (Exception e) {
+                        logger.error("Error flushing hot stock for product {}: {}", productId, e.getMessage());
+                        allotment.add(surplus);
+                    }
+                }
+            } finally {
+                allotment.refillLock.unlock();
+            }
+        });
+    }
+
+    // El lote se descuenta dentro de la transaccion del llamador. Si esa transaccion hace rollback la base
+    // recupera el lote entero, por eso el sobrante se suma al contador solo despues del commit.
+    // /FindInStock mira la fila: si el lote la deja en cero el producto sale del listado y se vence el ETag
+    private boolean refill(Long productId, Allotment allotment, int amount) {
+        int batch = Math.max(amount, batchSize);
+        StockUpdate update = productDao.reserveStock(productId, batch);
+        if (update != StockUpdate.REJECTED) {
+            addOnCommit(allotment, allotment.generation.get(), batch - amount);
+        } else if (batch > amount) {
+            // Queda poco stock: se pide justo lo necesario
+            update = productDao.reserveStock(productId, amount);
+        }
+        if (update == StockUpdate.CROSSED_ZERO) {
+            catalogVersion.bumpAfterCommit();
+        }
+        return update != StockUpdate.REJECTED;
+    }
+
+    // Si entre el refill y el commit hubo un overwrite, el sobrante es de antes del ajuste y no se suma
+    private void addOnCommit(Allotment allotment, int generation, int surplus) {
+        if (surplus <= 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        allotment.addIfGeneration(generation, surplus);
+                    }
+                }
+            });
+        } else {
+            // Sin transaccion externa el UPDATE del DAO ya confirmo
+            allotment.addIfGeneration(generation, surplus);
+        }
+    }
+
+    private void giveBackOnRollback(Allotment allotment, int generation, int amount) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        allotment.addIfGeneration(generation, amount);
+                    }
+                }
+            });
+        }
+    }
+
+    private void addOnRollback(Allotment allotment, int amount) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        allotment.add(amount);
+                    }
+                }
+            });
+        }
+    }
+
+    private static final class Allotment {
+
+        private final AtomicInteger[] stripes;
+        private final ReentrantLock refillLock = new ReentrantLock();
+        private final AtomicInteger generation = new AtomicInteger();
+
+        private Allotment(int stripeCount) {
+            stripes = new AtomicInteger[Math.max(1, stripeCount)];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new AtomicInteger();
+            }
+        }
+
+        private boolean take(int amount) {
+            int start = (int) (Thread.currentThread().threadId() % stripes.length);
+            for (int i = 0; i < stripes.length; i++) {
+                AtomicInteger stripe = stripes[(start + i) % stripes.length];
+                int current = stripe.get();
+                while (current >= amount) {
+                    if (stripe.compareAndSet(current, current - amount)) {
+                        return true;
+                    }
+                    current = stripe.get();
+                }
+            }
+            return false;
+        }
+
+        // Solo con el lock de refill tomado: las unidades repartidas en varios stripes se juntan de a partes.
+        // Si un take concurrente se lleva alguna en el medio, lo juntado se devuelve y se informa que no alcanzo
+        private boolean takeAcross(int amount) {
+            int collected = 0;
+            for (AtomicInteger stripe : stripes) {
+                int current = stripe.get();
+                while (current > 0 && collected < amount) {
+                    int part = Math.min(current, amount - collected);
+                    if (stripe.compareAndSet(current, current - part)) {
+                        collected += part;
+                        break;
+                    }
+                    current = stripe.get();
+                }
+                if (collected == amount) {
+                    return true;
+                }
+            }
+            add(collected);
+            return false;
+        }
+
+        private void addIfGeneration(int expected, int amount) {
+            if (generation.get() == expected) {
+                add(amount);
+            }
+        }
+
+        private void add(int amount) {
+            stripes[(int) (Thread.currentThread().threadId() % stripes.length)].addAndGet(amount);
+        }
+
+        private int drain() {
+            int total = 0;
+            for (AtomicInteger stripe : stripes) {
+                total += stripe.getAndSet(0);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.api.crud.services;
+
+import com.api.crud.DTO.OrderExportRowDTO;
+import com.api.crud.repositories.OrderDao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+// Exporta las ordenes fila por fila directo al OutputStream de la respuesta: la memoria no depende del rango pedido
+@Service
+public class OrderExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String CSV_HEADER = "idOrder,purchaseDateOrder,userEmail,orderStatus,paymentStatus,totalOrder," +
+            "idOrderItem,productId,productName,amountOrderItem,priceOrderItem";
+
+    private final OrderDao orderDao;
+    private final ObjectWriter rowWriter;
+    private final int fetchSize;
+    private final int flushEvery;
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportService.class);
+
+    @Autowired
+    public OrderExportService(OrderDao orderDao,
+                              ObjectMapper objectMapper,
+                              @Value("${orders.export.fetch-size:1000}") int fetchSize,
+                              @Value("${orders.export.flush-every:1000}") int flushEvery) {
+        this.orderDao = orderDao;
+        this.rowWriter = objectMapper.writerFor(OrderExportRowDTO.class);
+        this.fetchSize = fetchSize;
+        this.flushEvery = Math.max(1, flushEvery);
+    }
+
+    public void exportOrders(LocalDateTime startDate, LocalDateTime endDate, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        int[] written = {0};
+        int rows;
+        try {
+            rows = orderDao.streamOrderExportRows(startDate, endDate, fetchSize, row -> {
+                try {
+                    writer.write(format == Format.CSV ? toCsv(row) : rowWriter.writeValueAsString(row));
+                    writer.write('\n');
+                    // Flush periodico: el cliente empieza a recibir datos y el buffer no crece
+                    if (++written[0] % flushEvery == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        logger.info("Exported {} order rows between {} and {} as {}", rows, startDate, endDate, format);
+    }
+
+    private String toCsv(OrderExportRowDTO row) {
+        return String.join(",",
+                String.valueOf(row.getIdOrder()),
+                String.valueOf(row.getPurchaseDateOrder()),
+                csvField(row.getUserEmail()),
+                String.valueOf(row.getOrderStatus()),
+                String.valueOf(row.getPaymentStatus()),
+                String.valueOf(row.getTotalOrder()),
+                String.valueOf(row.getIdOrderItem()),
+                String.valueOf(row.getProductId()),
+                csvField(row.getProductName()),
+                String.valueOf(row.getAmountOrderItem()),
+                String.valueOf(row.getPriceOrderItem()));
+    }
+
+    // RFC 4180: entre comillas si tiene separador, comillas o saltos de linea
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,6 +1,7 @@
 package com.api.crud.services;
 
 import com.api.crud.DTO.OrderItemDTO;
+import com.api.crud.mappers.OrderMapper;
 import com.api.crud.models.entity.Order;
 import com.api.crud.models.entity.OrderItem;
 import com.api.crud.models.entity.Product;
@@ -28,19 +29,19 @@ public class OrderItemService {
         item.setOrder(order);
         item.setProductOrderItem(product);
         orderItemDao.saveOrderItem(item);
-        return modelMapper.map(item, OrderItemDTO.class);
+        return OrderMapper.toItemDTO(item);
     }
 
     public OrderItemDTO getOrderItemById(Long idOrderItem) {
         OrderItem item = orderItemDao.findOrderItemById(idOrderItem)
                 .orElseThrow(() -> new RuntimeException("OrderItem no encontrado"));
-        return modelMapper.map(item, OrderItemDTO.class);
+        return OrderMapper.toItemDTO(item);
     }
 
     public List<OrderItemDTO> getItemsByOrderId(Long orderId) {
         List<OrderItem> items = orderItemDao.findItemsByOrderId(orderId);
         return items.stream()
-                .map(item -> modelMapper.map(item, OrderItemDTO.class))
+                .map(OrderMapper::toItemDTO)
                 .toList();
     }
 
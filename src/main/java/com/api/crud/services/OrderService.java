@@ -1,16 +1,20 @@
 package com.api.crud.services;
 
+import com.api.crud.DTO.CursorPageDTO;
 import com.api.crud.DTO.OrderDTO;
 import com.api.crud.DTO.OrderItemDTO;
+import com.api.crud.mappers.OrderMapper;
 import com.api.crud.models.entity.Order;
 import com.api.crud.models.entity.OrderItem;
 import com.api.crud.models.entity.Product;
+import com.api.crud.models.entity.ProductPhysical;
 import com.api.crud.models.entity.UserModel;
 import com.api.crud.models.enums.OrderStatus;
 import com.api.crud.models.enums.PaymentStatus;
 import com.api.crud.repositories.OrderDao;
+import com.api.crud.repositories.ProductDao;
 import com.api.crud.repositories.UserDao;
-import org.modelmapper.ModelMapper;
+import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,22 +22,32 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
     private final OrderDao orderDao;
+    private final ProductDao productDao;
     private final UserDao userDao;
-    private final ModelMapper modelMapper;
+    private final StockReservationService stockReservationService;
 
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
-    public OrderService(OrderDao orderDao, UserDao userDao, ModelMapper modelMapper) {
+    public OrderService(OrderDao orderDao, ProductDao productDao, UserDao userDao,
+                        StockReservationService stockReservationService) {
         this.orderDao = orderDao;
+        this.productDao = productDao;
         this.userDao = userDao;
-        this.modelMapper = modelMapper;
+        this.stockReservationService = stockReservationService;
     }
 
     // Obtener todas las órdenes
@@ -43,7 +57,8 @@ public class OrderService {
                 .toList();
     }
 
-    // Crear una orden
+    // Crear una orden (reserva el stock de los productos fisicos; si alguno no alcanza se revierte todo)
+    @Transactional
     public OrderDTO createOrder(Long userId, List<OrderItemDTO> itemsDto) {
         UserModel user = userDao.findUserById(userId)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
@@ -54,30 +69,44 @@ public class OrderService {
         order.setPaymentStatus(PaymentStatus.PENDING);
         order.setOrderStatus(OrderStatus.PENDING);
 
-        List<OrderItem> items = new ArrayList<>();
+        // Un solo SELECT ... IN para todos los productos del pedido
+        Set<Long> productIds = itemsDto.stream()
+                .map(OrderItemDTO::getProductOrderItem)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productDao.findProductsByIds(productIds).stream()
+                .collect(Collectors.toMap(Product::getIdProduct, Function.identity()));
+
+        List<OrderItem> items = new ArrayList<>(itemsDto.size());
+        Map<Long, Integer> physicalAmounts = new HashMap<>();
         BigDecimal total = BigDecimal.ZERO;
 
         for (OrderItemDTO itemDTO : itemsDto) {
-            OrderItem item = modelMapper.map(itemDTO, OrderItem.class);
-
-            Product product = orderDao.findProductById(itemDTO.getProductOrderItem())
-                    .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
-
-            item.setProductOrderItem(product);
-            item.setPriceOrderItem(product.getPriceProduct());
-            item.setOrder(order);
+            Product product = products.get(itemDTO.getProductOrderItem());
+            if (product == null) {
+                throw new RuntimeException("Producto no encontrado");
+            }
 
+            OrderItem item = new OrderItem(null, order, product, itemDTO.getAmountOrderItem(), product.getPriceProduct());
             total = total.add(item.getSubtotal());
             items.add(item);
+
+            if (product instanceof ProductPhysical) {
+                physicalAmounts.merge(product.getIdProduct(), item.getAmountOrderItem(), Integer::sum);
+            }
         }
 
         order.setItemsOrder(items);
         order.setTotalOrder(total);
         orderDao.saveOrder(order);
 
+        stockReservationService.reserveAll(physicalAmounts, order.getIdOrder());
+        logger.info("Order {} created with {} items", order.getIdOrder(), items.size());
+
         return mapToOrderDTO(order);
     }
 
+    // Carga por PK sin grafo: los items se mapean dentro de la transaccion
+    @Transactional
     public OrderDTO getOrderById(Long idOrder) {
         Order order = orderDao.findOrderById(idOrder)
                 .orElseThrow(() -> new RuntimeException("Orden no encontrada"));
@@ -90,11 +119,53 @@ public class OrderService {
                 .toList();
     }
 
+    // Historial paginado con cursor opaco (fecha + id de la ultima orden); el total solo se cuenta si se pide
+    public CursorPageDTO<OrderDTO> getOrderHistoryPage(String email, OrderStatus status, String cursor, int size, boolean includeTotal) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        LocalDateTime lastDate = null;
+        Long lastId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            try {
+                lastDate = LocalDateTime.parse(parts[0]);
+                lastId = Long.valueOf(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        logger.info("Fetching order history page for {} (status {}, size {})", email, status, limit);
+
+        List<Order> orders = orderDao.findOrderHistoryPage(email, status, lastDate, lastId, limit + 1);
+        boolean hasNext = orders.size() > limit;
+        List<Order> page = hasNext ? orders.subList(0, limit) : orders;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Order last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(last.getPurchaseDateOrder().toString(), String.valueOf(last.getIdOrder()));
+        }
+
+        CursorPageDTO<OrderDTO> result = new CursorPageDTO<>(page.stream()
+                .map(this::mapToOrderDTO)
+                .toList(), nextCursor);
+        if (includeTotal) {
+            result.setTotal(orderDao.countOrdersByUserEmail(email, status));
+        }
+        return result;
+    }
+
+    @Transactional
     public void updateOrderStatus(Long orderId, OrderStatus status) {
         Order order = orderDao.findOrderById(orderId)
                 .orElseThrow(() -> new RuntimeException("Orden no encontrada"));
         order.setOrderStatus(status);
         orderDao.updateOrder(order);
+
+        if (status == OrderStatus.CANCELED) {
+            stockReservationService.releaseForOrder(orderId);
+        } else if (status != OrderStatus.PENDING) {
+            stockReservationService.commitForOrder(orderId);
+        }
     }
 
     public void updatePaymentStatus(Long orderId, PaymentStatus status) {
@@ -108,21 +179,13 @@ public class OrderService {
         updateOrderStatus(orderId, OrderStatus.CANCELED);
     }
 
+    @Transactional
     public void deleteOrder(Long orderId) {
+        stockReservationService.releaseForOrder(orderId);
         orderDao.deleteOrderById(orderId);
     }
 
     private OrderDTO mapToOrderDTO(Order order) {
-        OrderDTO dto = modelMapper.map(order, OrderDTO.class);
-        dto.setUserId(order.getUserOrder().getId());
-        dto.setUserEmail(order.getUserOrder().getEmail());
-        dto.setItemsOrder(order.getItemsOrder().stream()
-                .map(item -> {
-                    OrderItemDTO itemDTO = modelMapper.map(item, OrderItemDTO.class);
-                    itemDTO.setOrder(item.getOrder().getIdOrder());
-                    itemDTO.setProductOrderItem(item.getProductOrderItem().getIdProduct());
-                    return itemDTO;
-                }).toList());
-        return dto;
+        return OrderMapper.toDTO(order);
     }
 }
\ No newline at end of file
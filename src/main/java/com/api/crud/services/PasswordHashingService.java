@@ -0,0 +1,87 @@
+package com.api.crud.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// BCrypt fuera del hilo del request, en un pool fijo del tamano de los nucleos (es trabajo de CPU: mas hilos
+// no terminan antes). La cola es corta y con timeout: si esta llena o la espera se pasa, se rechaza con
+// RejectedExecutionException y el controller responde 503 en vez de dejar al request esperando.
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final long timeoutMs;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.password.hashing.threads:0}") int threads,
+                                  @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${security.password.hashing.timeout-ms:2000}") long timeoutMs) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMs = timeoutMs;
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.pool = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        // executor_* con name=password.hashing: cola, activos y rechazos
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "password.hashing");
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return call(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    // Barato (solo lee el costo del hash): no pasa por el pool
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T call(Callable<T> task) {
+        Future<T> future = executor.submit(task);
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Password hashing timed out after {} ms (queued: {})", timeoutMs, pool.getQueue().size());
+            throw new RejectedExecutionException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while hashing password");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
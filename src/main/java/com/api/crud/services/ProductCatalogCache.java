@@ -0,0 +1,146 @@
+package com.api.crud.services;
+
+import com.api.crud.DTO.ProductDTO;
+import com.api.crud.models.entity.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Cache de lectura del catalogo (por id, por nombre y por categoria). Caffeine usa W-TinyLFU para desalojar.
+@Component
+public class ProductCatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalogCache.class);
+
+    private final Cache<Long, ProductDTO> byId;
+    private final Cache<String, ProductDTO> byName;
+    private final Cache<String, List<ProductDTO>> byCategory;
+
+    // Claves de cada producto que paso por alguna de las vistas, para que evictProduct invalide por clave
+    // sin recorrer las caches. Crece como mucho hasta la cantidad de productos del catalogo.
+    private final Map<Long, ProductKeys> keysById = new ConcurrentHashMap<>();
+    private final Map<String, Long> idByName = new ConcurrentHashMap<>();
+
+    public ProductCatalogCache(@Value("${catalog.cache.max-products:10000}") long maxProducts,
+                               @Value("${catalog.cache.max-categories:500}") long maxCategories,
+                               @Value("${catalog.cache.expire-after-write-minutes:10}") long expireMinutes) {
+        Duration ttl = Duration.ofMinutes(expireMinutes);
+        this.byId = Caffeine.newBuilder().maximumSize(maxProducts).expireAfterWrite(ttl).recordStats().build();
+        this.byName = Caffeine.newBuilder().maximumSize(maxProducts).expireAfterWrite(ttl).recordStats().build();
+        this.byCategory = Caffeine.newBuilder().maximumSize(maxCategories).expireAfterWrite(ttl).recordStats().build();
+    }
+
+    public Optional<ProductDTO> getById(Long idProduct, Supplier<Optional<ProductDTO>> loader) {
+        return Optional.ofNullable(byId.get(idProduct, key -> remember(loader.get().orElse(null), null)));
+    }
+
+    public Optional<ProductDTO> getByName(String nameProduct, Supplier<Optional<ProductDTO>> loader) {
+        return Optional.ofNullable(byName.get(nameProduct, key -> remember(loader.get().orElse(null), null)));
+    }
+
+    public List<ProductDTO> getByCategory(String category, Supplier<List<ProductDTO>> loader) {
+        return byCategory.get(categoryKey(category), key -> {
+            List<ProductDTO> products = List.copyOf(loader.get());
+            products.forEach(product -> remember(product, key));
+            return products;
+        });
+    }
+
+    // Quita el producto de las tres vistas; alcanza con conocer el id o el nombre
+    public void evictProduct(Long idProduct, String nameProduct) {
+        Long id = idProduct != null ? idProduct : (nameProduct != null ? idByName.get(nameProduct) : null);
+        if (id != null) {
+            byId.invalidate(id);
+            ProductKeys keys = keysById.remove(id);
+            if (keys != null) {
+                if (keys.name() != null) {
+                    byName.invalidate(keys.name());
+                    idByName.remove(keys.name());
+                }
+                if (keys.categoryKey() != null) {
+                    byCategory.invalidate(keys.categoryKey());
+                }
+            }
+        }
+        if (nameProduct != null) {
+            byName.invalidate(nameProduct);
+            idByName.remove(nameProduct);
+        }
+        logger.debug("Catalog cache evicted product id={} name={}", idProduct, nameProduct);
+    }
+
+    public void evictCategory(String category) {
+        if (category != null) {
+            byCategory.invalidate(categoryKey(category));
+        }
+    }
+
+    // Escrituras hechas por otra instancia (las detecta CatalogVersion): no se sabe que claves tocaron
+    public void invalidateAll() {
+        byId.invalidateAll();
+        byName.invalidateAll();
+        byCategory.invalidateAll();
+        keysById.clear();
+        idByName.clear();
+        logger.debug("Catalog cache invalidated");
+    }
+
+    public Map<String, Map<String, Long>> stats() {
+        Map<String, Map<String, Long>> stats = new LinkedHashMap<>();
+        stats.put("byId", toMap(byId));
+        stats.put("byName", toMap(byName));
+        stats.put("byCategory", toMap(byCategory));
+        return stats;
+    }
+
+    public Cache<Long, ProductDTO> getByIdCache() {
+        return byId;
+    }
+
+    public Cache<String, ProductDTO> getByNameCache() {
+        return byName;
+    }
+
+    public Cache<String, List<ProductDTO>> getByCategoryCache() {
+        return byCategory;
+    }
+
+    private ProductDTO remember(ProductDTO product, String categoryKey) {
+        if (product != null && product.getIdProduct() != null) {
+            String key = categoryKey != null ? categoryKey : Product.normalizeCategory(product.getCategory());
+            keysById.put(product.getIdProduct(), new ProductKeys(product.getNameProduct(), key));
+            if (product.getNameProduct() != null) {
+                idByName.put(product.getNameProduct(), product.getIdProduct());
+            }
+        }
+        return product;
+    }
+
+    // Misma normalizacion que la columna categoryNormalized por la que filtra el DAO
+    private String categoryKey(String category) {
+        return Product.normalizeCategory(category);
+    }
+
+    private record ProductKeys(String name, String categoryKey) {}
+
+    private Map<String, Long> toMap(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Long> values = new LinkedHashMap<>();
+        values.put("size", cache.estimatedSize());
+        values.put("hits", stats.hitCount());
+        values.put("misses", stats.missCount());
+        values.put("evictions", stats.evictionCount());
+        return values;
+    }
+}
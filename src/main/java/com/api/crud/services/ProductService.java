@@ -1,6 +1,8 @@
 package com.api.crud.services;
 
+import com.api.crud.DTO.CursorPageDTO;
 import com.api.crud.DTO.ProductDTO;
+import com.api.crud.mappers.ProductMapper;
 import com.api.crud.models.entity.Product;
 import com.api.crud.models.entity.ProductDigital;
 import com.api.crud.models.entity.ProductPhysical;
@@ -10,8 +12,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.modelmapper.ModelMapper;
@@ -23,9 +25,22 @@ public class ProductService {
     private ProductDao productDao;
     @Autowired
     private ModelMapper modelMapper;
+    @Autowired
+    private ProductCatalogCache catalogCache;
+    @Autowired
+    private CatalogVersion catalogVersion;
+    @Autowired
+    private HotStockCounter hotStockCounter;
 
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
 
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "idProduct",
+            "name", "nameProduct",
+            "price", "priceProduct");
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     public void saveProduct(ProductDTO productDTO) {
         Product product;
 
@@ -42,11 +57,13 @@ public class ProductService {
 
         product.setActive(true);
         productDao.saveProduct(product);
+        catalogCache.evictCategory(product.getCategory());
+        catalogVersion.bump();
     }
 
     public Optional<ProductDTO> findProductByName(String nameProduct) {
-        return productDao.findProductByName(nameProduct)
-                .map(this::mapProductToDTO);
+        return catalogCache.getByName(nameProduct, () -> productDao.findProductByName(nameProduct)
+                .map(this::mapProductToDTO));
     }
 
     public List<ProductDTO> showProducts() {
@@ -59,8 +76,8 @@ public class ProductService {
     }
 
     public Optional<ProductDTO> findProductById(Long idProduct) {
-        return productDao.findProductById(idProduct)
-                .map(this::mapProductToDTO);
+        return catalogCache.getById(idProduct, () -> productDao.findProductById(idProduct)
+                .map(this::mapProductToDTO));
     }
 
     public boolean deleteProduct(Long idProduct) {
@@ -68,6 +85,8 @@ public class ProductService {
         boolean result = productDao.deleteProduct(idProduct);
 
         if (result) {
+            catalogCache.evictProduct(idProduct, null);
+            catalogVersion.bump();
             logger.info("Product with id {} deleted", idProduct);
         } else {
             logger.debug("Product with id {} not deleted in services", idProduct);
@@ -78,20 +97,40 @@ public class ProductService {
 
     public boolean updateProductStock(String nameProduct, Integer newStockProduct) {
         logger.info("Updating stock for product {} in service", nameProduct);
-        return productDao.updateProductStock(nameProduct, newStockProduct);
+        // En un SKU caliente el valor absoluto pasa por el contador, que descarta las unidades que tenia en memoria
+        Long idProduct = productDao.findProductByName(nameProduct).map(Product::getIdProduct).orElse(null);
+        boolean result = idProduct != null && hotStockCounter.isHot(idProduct)
+                ? hotStockCounter.overwrite(idProduct, () -> productDao.updateProductStock(nameProduct, newStockProduct))
+                : productDao.updateProductStock(nameProduct, newStockProduct);
+        if (result) {
+            catalogCache.evictProduct(idProduct, nameProduct);
+            catalogVersion.bump();
+        }
+        return result;
     }
 
     public boolean updateProductPrice(String nameProduct, BigDecimal newPriceProduct) {
         logger.info("Updating price for product {} in service", nameProduct);
-        return productDao.updateProductPrice(nameProduct, newPriceProduct);
+        boolean result = productDao.updateProductPrice(nameProduct, newPriceProduct);
+        if (result) {
+            catalogCache.evictProduct(null, nameProduct);
+            catalogVersion.bump();
+        }
+        return result;
     }
 
     public List<ProductDTO> findProductsByCategory(String category) {
         logger.info("Finding products by category {} in service", category);
-        return productDao.findProductsByCategory(category)
-                .stream()
-                .map(this::mapProductToDTO)
-                .collect(Collectors.toList());
+        List<ProductDTO> response;
+        if (category == null) {
+            response = List.of();
+        } else {
+            response = catalogCache.getByCategory(category, () -> productDao.findProductsByCategory(category)
+                    .stream()
+                    .map(this::mapProductToDTO)
+                    .collect(Collectors.toList()));
+        }
+        return response;
     }
 
     public List<ProductDTO> findProductsByPriceRange(BigDecimal min, BigDecimal max) {
@@ -111,28 +150,77 @@ public class ProductService {
     }
 
     private ProductDTO mapProductToDTO(Product product) {
-        return modelMapper.map(product, ProductDTO.class);
+        return ProductMapper.toDTO(product);
     }
 
     public List<Product> findProductsSortedByPriceAsc() {
-        return productDao.showProducts()
-                .stream()
-                .sorted(Comparator.comparing(Product::getPriceProduct))
-                .collect(Collectors.toList());
+        return productDao.showProductsSorted("priceProduct", false);
     }
 
     public List<Product> findProductsSortedByPriceDesc() {
-        return productDao.showProducts()
-                .stream()
-                .sorted(Comparator.comparing(Product::getPriceProduct).reversed())
-                .collect(Collectors.toList());
+        return productDao.showProductsSorted("priceProduct", true);
     }
 
     public List<Product> findProductsSortedByName() {
-        return productDao.showProducts()
-                .stream()
-                .sorted(Comparator.comparing(Product::getNameProduct, String.CASE_INSENSITIVE_ORDER))
-                .collect(Collectors.toList());
+        return productDao.showProductsSorted("nameProduct", false);
+    }
+
+    public CursorPageDTO<ProductDTO> findProductsPage(String sort, String direction, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        String sortKey;
+        boolean descending;
+        Object lastValue = null;
+        Long lastId = null;
+
+        // El cursor lleva su propio orden, asi una pagina siguiente no puede mezclar criterios
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorCodec.decode(cursor, 4);
+            sortKey = parts[0];
+            descending = "desc".equals(parts[1]);
+            lastValue = parseSortValue(sortKey, parts[2]);
+            lastId = Long.valueOf(parts[3]);
+        } else {
+            sortKey = sort.toLowerCase();
+            descending = "desc".equalsIgnoreCase(direction);
+        }
+
+        String sortField = SORT_FIELDS.get(sortKey);
+        if (sortField == null) {
+            throw new IllegalArgumentException("Invalid sort field: " + sortKey);
+        }
+        logger.info("Fetching products page sorted by {} {} (size {})", sortKey, descending ? "desc" : "asc", limit);
+
+        List<Product> products = productDao.findProductsPage(sortField, descending, lastValue, lastId, limit + 1);
+        boolean hasNext = products.size() > limit;
+        List<Product> page = hasNext ? products.subList(0, limit) : products;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(sortKey, descending ? "desc" : "asc",
+                    sortValue(sortKey, last), String.valueOf(last.getIdProduct()));
+        }
+
+        return new CursorPageDTO<>(page.stream()
+                .map(this::mapProductToDTO)
+                .collect(Collectors.toList()), nextCursor);
+    }
+
+    // Un precio NULL viaja como cadena vacia en el cursor (nunca es un precio valido)
+    private String sortValue(String sortKey, Product product) {
+        return switch (sortKey) {
+            case "price" -> product.getPriceProduct() == null ? "" : product.getPriceProduct().toPlainString();
+            case "name" -> product.getNameProduct();
+            default -> String.valueOf(product.getIdProduct());
+        };
+    }
+
+    private Object parseSortValue(String sortKey, String value) {
+        return switch (sortKey) {
+            case "price" -> value.isEmpty() ? null : new BigDecimal(value);
+            case "name" -> value;
+            default -> Long.valueOf(value);
+        };
     }
 
     public boolean disableProduct(Long idProduct) {
@@ -147,6 +235,8 @@ public class ProductService {
 
             try {
                 productDao.saveProduct(product);
+                catalogCache.evictProduct(idProduct, product.getNameProduct());
+                catalogVersion.bump();
                 logger.info("Product with id {} disabled successfully", idProduct);
                 success = true;
             } catch (Exception e) {
@@ -161,7 +251,17 @@ public class ProductService {
 
     public boolean updateProduct(ProductDTO productDTO) {
         Product product = modelMapper.map(productDTO, Product.class);
-        return productDao.updateProduct(product);
+        boolean result = productDao.updateProduct(product);
+        if (result) {
+            catalogCache.evictProduct(productDTO.getIdProduct(), productDTO.getNameProduct());
+            catalogCache.evictCategory(productDTO.getCategory());
+            catalogVersion.bump();
+        }
+        return result;
+    }
+
+    public Map<String, Map<String, Long>> getCatalogCacheStats() {
+        return catalogCache.stats();
     }
 
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.api.crud.services;
 
 import com.api.crud.DTO.RoleDTO;
+import com.api.crud.config.RoleAuthorityCache;
+import com.api.crud.mappers.UserMapper;
 import com.api.crud.models.entity.Role;
 import com.api.crud.repositories.RoleDao;
 import org.modelmapper.ModelMapper;
@@ -21,11 +23,14 @@ public class RoleService {
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private RoleAuthorityCache roleAuthorityCache;
+
     private static final Logger logger = LoggerFactory.getLogger(RoleService.class);
 
     public Optional<RoleDTO> findRoleByName(String roleName) {
         Optional<RoleDTO> roleDTO = roleDao.findRoleByName(roleName)
-                .map(role -> modelMapper.map(role, RoleDTO.class));
+                .map(role -> UserMapper.toRoleDTO(role));
 
         if (roleDTO.isPresent()) {
             logger.debug("Role {} found in RoleService.", roleName);
@@ -38,7 +43,7 @@ public class RoleService {
     public Optional<RoleDTO> findRoleById(Long id){
         logger.info("Starting to process findRoleBy id with id {} in services", id);
         Optional<RoleDTO> roleDTO = roleDao.findRoleById(id)
-                .map(role -> modelMapper.map(role, RoleDTO.class));
+                .map(role -> UserMapper.toRoleDTO(role));
 
         if (roleDTO.isPresent()){
             logger.debug("Role with id {} was found in services", id);
@@ -52,7 +57,7 @@ public class RoleService {
         logger.debug("Retrieving all roles from RoleService...");
         List<RoleDTO> roleDTOs = roleDao.getRoles()
                 .stream()
-                .map(role -> modelMapper.map(role, RoleDTO.class))
+                .map(role -> UserMapper.toRoleDTO(role))
                 .collect(Collectors.toList());
 
         logger.debug("Successfully retrieved {} roles from RoleService.", roleDTOs.size());
@@ -63,6 +68,7 @@ public class RoleService {
         logger.info("Starting to save new role: {} in services", roleDTO.getNameRole());
         Role role = modelMapper.map(roleDTO, Role.class);
         roleDao.saveRole(role);
+        roleAuthorityCache.invalidateAll();
         logger.info("Role {} saved successfully in RoleService.", roleDTO.getNameRole());
     }
 
@@ -70,6 +76,7 @@ public class RoleService {
         logger.info("Starting to delete role with id {} in services", id);
         boolean result = roleDao.deleteRoleById(id);
         if (result) {
+            roleAuthorityCache.invalidateAll();
             logger.info("Role with ID {} deleted successfully", id);
         } else {
             logger.debug("Role with ID {} not found or deletion failed", id);
@@ -0,0 +1,148 @@
+package com.api.crud.services;
+
+import com.api.crud.models.entity.StockReservation;
+import com.api.crud.models.enums.ReservationStatus;
+import com.api.crud.models.enums.StockUpdate;
+import com.api.crud.repositories.ProductDao;
+import com.api.crud.repositories.StockReservationDao;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class StockReservationService {
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Autowired
+    private StockReservationDao reservationDao;
+
+    @Autowired
+    private HotStockCounter hotStockCounter;
+
+    @Autowired
+    private ProductCatalogCache catalogCache;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+
+    @Transactional
+    public StockReservation reserve(Long productId, int amount, Long orderId) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("La cantidad a reservar debe ser mayor a cero");
+        }
+
+        StockUpdate update = take(productId, amount);
+
+        if (update == StockUpdate.REJECTED) {
+            logger.warn("Not enough stock to reserve {} units of product {}", amount, productId);
+            throw new IllegalStateException("Stock insuficiente para el producto " + productId);
+        }
+
+        StockReservation reservation = new StockReservation(productId, orderId, amount);
+        reservationDao.saveReservation(reservation);
+        stockChanged(productId, update);
+        logger.debug("Reserved {} units of product {} for order {}", amount, productId, orderId);
+        return reservation;
+    }
+
+    // Reserva todas las lineas de un pedido. Primero se descuenta el stock (en orden de id para que dos pedidos
+    // concurrentes tomen los locks de fila en el mismo orden) y despues se persisten las reservas juntas,
+    // asi los INSERT quedan pendientes hasta el flush y Hibernate los puede mandar en batch.
+    @Transactional
+    public List<StockReservation> reserveAll(Map<Long, Integer> amountsByProduct, Long orderId) {
+        Map<Long, Integer> sorted = new TreeMap<>(amountsByProduct);
+        sorted.forEach((productId, amount) -> {
+            if (amount <= 0) {
+                throw new IllegalArgumentException("La cantidad a reservar debe ser mayor a cero");
+            }
+            StockUpdate update = take(productId, amount);
+            if (update == StockUpdate.REJECTED) {
+                logger.warn("Not enough stock to reserve {} units of product {}", amount, productId);
+                throw new IllegalStateException("Stock insuficiente para el producto " + productId);
+            }
+            stockChanged(productId, update);
+        });
+
+        List<StockReservation> reservations = new ArrayList<>(sorted.size());
+        sorted.forEach((productId, amount) -> {
+            StockReservation reservation = new StockReservation(productId, orderId, amount);
+            reservationDao.saveReservation(reservation);
+            reservations.add(reservation);
+        });
+        logger.debug("Reserved stock for {} products of order {}", reservations.size(), orderId);
+        return reservations;
+    }
+
+    @Transactional
+    public boolean commit(Long reservationId) {
+        boolean committed = reservationDao.updateStatus(reservationId, ReservationStatus.RESERVED, ReservationStatus.COMMITTED);
+        if (!committed) {
+            logger.debug("Reservation {} was not pending, nothing to commit", reservationId);
+        }
+        return committed;
+    }
+
+    @Transactional
+    public boolean release(Long reservationId) {
+        StockReservation reservation = reservationDao.findReservationById(reservationId)
+                .orElseThrow(() -> new IllegalArgumentException("Reserva no encontrada"));
+
+        boolean released = reservationDao.updateStatus(reservationId, ReservationStatus.RESERVED, ReservationStatus.RELEASED);
+        if (released) {
+            StockUpdate update;
+            if (hotStockCounter.isHot(reservation.getProductId())) {
+                hotStockCounter.giveBack(reservation.getProductId(), reservation.getAmountReserved());
+                update = StockUpdate.UPDATED;
+            } else {
+                update = productDao.releaseStock(reservation.getProductId(), reservation.getAmountReserved());
+            }
+            stockChanged(reservation.getProductId(), update);
+            logger.debug("Released {} units of product {}", reservation.getAmountReserved(), reservation.getProductId());
+        }
+        return released;
+    }
+
+    @Transactional
+    public void commitForOrder(Long orderId) {
+        List<StockReservation> reservations = reservationDao.findReservationsByOrderId(orderId, ReservationStatus.RESERVED);
+        reservations.forEach(reservation -> commit(reservation.getIdReservation()));
+        logger.info("Committed {} stock reservations for order {}", reservations.size(), orderId);
+    }
+
+    @Transactional
+    public void releaseForOrder(Long orderId) {
+        List<StockReservation> reservations = reservationDao.findReservationsByOrderId(orderId, ReservationStatus.RESERVED);
+        reservations.forEach(reservation -> release(reservation.getIdReservation()));
+        logger.info("Released {} stock reservations for order {}", reservations.size(), orderId);
+    }
+
+    private StockUpdate take(Long productId, int amount) {
+        if (hotStockCounter.isHot(productId)) {
+            return hotStockCounter.tryTake(productId, amount) ? StockUpdate.UPDATED : StockUpdate.REJECTED;
+        }
+        return productDao.reserveStock(productId, amount);
+    }
+
+    // El producto siempre sale de la cache local. La version del catalogo se sube despues del commit solo
+    // si el stock cruzo cero (el producto entra o sale de /FindInStock); el resto de los cambios de stock
+    // se juntan en el bump periodico. En los SKU calientes el cruce lo informa HotStockCounter al pedir o
+    // devolver un lote, que es cuando cambia la fila
+    private void stockChanged(Long productId, StockUpdate update) {
+        catalogCache.evictProduct(productId, null);
+        if (update == StockUpdate.CROSSED_ZERO) {
+            catalogVersion.bumpAfterCommit();
+        } else {
+            catalogVersion.markStockChanged();
+        }
+    }
+}
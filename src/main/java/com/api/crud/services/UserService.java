@@ -2,15 +2,18 @@ package com.api.crud.services;
 
 import com.api.crud.DTO.*;
 import com.api.crud.config.JWTUtil;
+import com.api.crud.config.ReportingQuery;
+import com.api.crud.config.TokenPrincipalCache;
+import com.api.crud.mappers.UserMapper;
 import com.api.crud.models.entity.Role;
 import com.api.crud.models.entity.UserModel;
 import com.api.crud.repositories.RoleDao;
 import com.api.crud.repositories.UserDao;
+import jakarta.transaction.Transactional;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -39,45 +42,52 @@ public class UserService {
     private ModelMapper modelMapper;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private TokenPrincipalCache principalCache;
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
 
+    // Una sola consulta (usuario + roles con JOIN FETCH); BCrypt corre en PasswordHashingService.
+    // Si el pool de hashing esta saturado sale RejectedExecutionException y el controller responde 503.
     public String login(LoginRequestDTO loginRequestDTO) {
         logger.info("Attempting Service login for user: {}", loginRequestDTO.getEmail());
-        Optional<UserModelDTO> userModelDTO = findUserByEmail(loginRequestDTO.getEmail());
+        Optional<UserModel> userModel = userDao.findUserByEmail(loginRequestDTO.getEmail());
 
-        if (userModelDTO.isEmpty()) {
+        if (userModel.isEmpty()) {
             logger.debug("Login failed: User {} not found", loginRequestDTO.getEmail());
             throw new IllegalArgumentException("User not found");
         }
 
-        UserModelDTO user = userModelDTO.get();
+        UserModel user = userModel.get();
 
-        if (!passwordEncoder.matches(loginRequestDTO.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(loginRequestDTO.getPassword(), user.getPassword())) {
             logger.debug("Login failed: Incorrect password for {}", loginRequestDTO.getEmail());
             throw new IllegalArgumentException("Wrong password");
         }
 
-        List<String> roles = getRolesForEmail(user.getEmail());
+        rehashIfNeeded(user, loginRequestDTO.getPassword());
+
+        List<String> roles = user.getRoles().stream()
+                .map(Role::getNameRole)
+                .collect(Collectors.toList());
         logger.info("User {} logged in successfully with roles {}", loginRequestDTO.getEmail(), roles);
         return jwtUtil.generateToken(user.getEmail(), roles);
     }
 
-    private List<String> getRolesForEmail(String email) {
-        logger.info("Starting to process fetching roles for user with email: {}", email);
-        Optional<UserModel> response = userDao.findUserByEmail(email);
-
-        if (response.isPresent()) {
-            List<String> roles = response.get().getRoles().stream()
-                    .map(Role::getNameRole)
-                    .collect(Collectors.toList());
-            logger.info("Roles found for user {}: {}", email, roles);
-            return roles;
-        } else {
-            logger.debug("User with email {} not found", email);
-            throw new RuntimeException("User not found");
+    // Rehash transparente: si el hash guardado tiene un costo menor al configurado se regenera con la
+    // contrasena que ya se valido. Un fallo aca no corta el login.
+    private void rehashIfNeeded(UserModel user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            userDao.updatePassword(user.getId(), passwordHashingService.encode(rawPassword));
+            logger.info("Password hash of user {} upgraded to the current cost", user.getEmail());
+        } catch (RuntimeException e) {
+            logger.warn("Could not upgrade password hash of user {}: {}", user.getEmail(), e.getMessage());
         }
     }
 
@@ -86,7 +96,7 @@ public class UserService {
 
         UserModel userModel = modelMapper.map(userModelDto, UserModel.class);
 
-        userModel.setPassword(passwordEncoder.encode(userModel.getPassword()));
+        userModel.setPassword(passwordHashingService.encode(userModel.getPassword()));
 
         if (userModel.getRoles() == null) {
             userModel.setRoles(new HashSet<>());
@@ -107,12 +117,14 @@ public class UserService {
         logger.info("User {} registered successfully", userModelDto.getEmail());
     }
 
+    // UserMapper.toModelDTO recorre roles y ordenes (LAZY): sin open-in-view el mapeo va dentro de la transaccion
+    @Transactional
     public Optional<UserModelDTO> findUserByName(String firstName, String lastName) {
         logger.info("Starting to process search for user with name: {} and lastName: {}", firstName, lastName);
 
         Optional<UserModel> user = userDao.findUserByName(firstName, lastName);
 
-        Optional<UserModelDTO> response = user.map(userModel -> modelMapper.map(userModel, UserModelDTO.class));
+        Optional<UserModelDTO> response = user.map(userModel -> UserMapper.toModelDTO(userModel));
 
         if (response.isEmpty()) {
             logger.debug("User not found with name: {} and lastName: {}", firstName, lastName);
@@ -121,11 +133,12 @@ public class UserService {
         return response;
     }
 
+    @Transactional
     public Optional<UserModelDTO> findUserByEmail(String email) {
         logger.info("Starting to process search for user with email: {}", email);
 
         Optional<UserModelDTO> userModelDTO = userDao.findUserByEmail(email)
-                .map(user -> modelMapper.map(user, UserModelDTO.class));
+                .map(user -> UserMapper.toModelDTO(user));
 
         if (userModelDTO.isEmpty()) {
             logger.debug("User with email {} not found", email);
@@ -134,9 +147,10 @@ public class UserService {
         return userModelDTO;
     }
 
+    @Transactional
     public UserModelDTO updateUserByEmail(String email, UserUpdateDTO dto) {
         UserModel updatedUser = userDao.updateUserByEmail(email, dto);
-        return modelMapper.map(updatedUser, UserModelDTO.class);
+        return UserMapper.toModelDTO(updatedUser);
     }
 
     public void deactivateUserByEmail(String email) {
@@ -144,6 +158,7 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
         user.setActive(false);
         userDao.update(user);
+        principalCache.invalidateUser(email);
     }
 
     public boolean deleteUserByEmail(String email) {
@@ -151,6 +166,7 @@ public class UserService {
         boolean response = userDao.deleteUserByEmail(email);
 
         if (response) {
+            principalCache.invalidateUser(email);
             logger.info("The user with mail: {} was erased", email);
         } else {
             logger.info("The user with mail: {} wasn't erased", email);
@@ -163,7 +179,7 @@ public class UserService {
         UserModel user = userDao.findUserByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
-        if (!passwordEncoder.matches(dto.getCurrentPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(dto.getCurrentPassword(), user.getPassword())) {
             throw new RuntimeException("Contraseña actual incorrecta");
         }
 
@@ -172,43 +188,40 @@ public class UserService {
         }
 
         // Encriptar y guardar la nueva contraseña
-        user.setPassword(passwordEncoder.encode(dto.getNewPassword()));
+        user.setPassword(passwordHashingService.encode(dto.getNewPassword()));
         userDao.update(user);
     }
 
     public List<UserDTO> getUsers() {
         logger.info("Starting to process getUsers in service");
-        List<UserModel> users = userDao.getUsers();
+        List<UserDTO> userDTOs = userDao.getUserSummaries();
 
-        if (users.isEmpty()) {
+        if (userDTOs.isEmpty()) {
             logger.debug("No users found in service.");
         }
 
-        // Mapear lista de usuarios a DTOs
-        List<UserDTO> userDTOs = users.stream()
-                .map(user -> modelMapper.map(user, UserDTO.class))
-                .collect(Collectors.toList());
-
-        logger.info("Successfully retrieved {} users", users.size());
+        logger.info("Successfully retrieved {} users", userDTOs.size());
         return userDTOs;
     }
 
+    @ReportingQuery
+    @Transactional
     public Page<UserModelDTO> getUsersModel(Pageable pageable) {
         logger.info("Starting to process getUsersModel in service...");
         Page<UserModel> users = userDao.getUsersModel(pageable);
 
-        // Mapeamos Page<UserModel> a Page<UserModelDTO> usando ModelMapper
-        Page<UserModelDTO> userDTOs = users.map(userModel -> modelMapper.map(userModel, UserModelDTO.class));
+        Page<UserModelDTO> userDTOs = users.map(userModel -> UserMapper.toModelDTO(userModel));
 
         logger.info("Successfully retrieved {} users", userDTOs.getTotalElements());
         return userDTOs;
     }
 
+    @Transactional
     public Optional<UserModelDTO> findUserById(Long id) {
         logger.info("Starting to process search for user with ID: {}", id);
 
         Optional<UserModelDTO> userModelDTO = userDao.findUserById(id)
-                .map(user -> modelMapper.map(user, UserModelDTO.class));
+                .map(user -> UserMapper.toModelDTO(user));
 
         if (userModelDTO.isEmpty()) {
             logger.debug("User with ID {} not found", id);
@@ -217,6 +230,7 @@ public class UserService {
         return userModelDTO;
     }
 
+    @Transactional
     public UserModelDTO updateUserById(UserModelDTO userModelDto, Long id) {
         logger.info("Starting to process update user with ID: {}", id);
         Optional<UserModel> userOptional = userDao.findUserById(id);
@@ -227,6 +241,7 @@ public class UserService {
         }
 
         UserModel user = userOptional.get();
+        String previousEmail = user.getEmail();
 
         user.setFirstName(userModelDto.getFirstName());
         user.setLastName(userModelDto.getLastName());
@@ -235,16 +250,19 @@ public class UserService {
         user.setPassword(userModelDto.getPassword());
 
         UserModel updatedUser = userDao.updateUserById(user, id);
+        principalCache.invalidateUser(previousEmail);
         logger.info("User with ID {} updated successfully", id);
 
-        return (updatedUser != null) ? modelMapper.map(updatedUser, UserModelDTO.class) : null;
+        return (updatedUser != null) ? UserMapper.toModelDTO(updatedUser) : null;
     }
 
     public boolean deleteUserById(long id) {
         logger.info("Starting to process attempting to delete user with ID: {}", id);
+        Optional<String> email = userDao.findUserById(id).map(UserModel::getEmail);
         boolean result = userDao.deleteUserById(id);
 
         if (result) {
+            email.ifPresent(principalCache::invalidateUser);
             logger.info("User with ID {} deleted successfully", id);
         } else {
             logger.debug("User with ID {} not found or deletion failed", id);
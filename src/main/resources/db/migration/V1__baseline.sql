@@ -0,0 +1,147 @@
+-- Esquema que ddl-auto=update dejaba en produccion antes de pasar a Flyway (dialecto MySQL), todas las PK IDENTITY.
+-- Las bases existentes se marcan en esta version con spring.flyway.baseline-on-migrate y arrancan desde V2,
+-- por eso este archivo no se modifica: todo cambio de esquema va en una migracion nueva.
+
+create table cart_items (
+    amountCartItem integer,
+    priceCartItem decimal(10,2),
+    cart_id bigint,
+    idCartItem bigint not null auto_increment,
+    product_id bigint,
+    primary key (idCartItem)
+) engine=InnoDB;
+
+create table carts (
+    active bit not null,
+    creationDate date not null,
+    idCart bigint not null auto_increment,
+    user_id bigint,
+    primary key (idCart)
+) engine=InnoDB;
+
+create table order_items (
+    amountOrderItem integer,
+    priceOrderItem decimal(10,2),
+    idOrderItem bigint not null auto_increment,
+    order_id bigint not null,
+    product_id bigint not null,
+    primary key (idOrderItem)
+) engine=InnoDB;
+
+create table orders (
+    totalOrder decimal(10,2) not null,
+    idOrder bigint not null auto_increment,
+    purchaseDateOrder datetime(6) not null,
+    user_id bigint,
+    orderStatus enum ('PENDING','CONFIRMED','SHIPPED','DELIVERED','CANCELED') not null,
+    paymentStatus enum ('PENDING','PAID','FAILED','REFUNDED') not null,
+    primary key (idOrder)
+) engine=InnoDB;
+
+create table productdigital (
+    idProduct bigint not null,
+    license varchar(50),
+    downloadLink varchar(200),
+    primary key (idProduct)
+) engine=InnoDB;
+
+create table productphysical (
+    stockProduct integer,
+    idProduct bigint not null,
+    shippingAddress varchar(200),
+    primary key (idProduct)
+) engine=InnoDB;
+
+create table products (
+    active bit,
+    priceProduct decimal(10,2),
+    idProduct bigint not null auto_increment,
+    nameProduct varchar(30) not null,
+    product_type varchar(31) not null,
+    category varchar(50),
+    description varchar(200),
+    imageUrl varchar(200),
+    primary key (idProduct)
+) engine=InnoDB;
+
+create table role (
+    idRole bigint not null auto_increment,
+    nameRole varchar(20) not null,
+    primary key (idRole)
+) engine=InnoDB;
+
+create table user_roles (
+    role_id bigint not null,
+    user_id bigint not null,
+    primary key (role_id, user_id)
+) engine=InnoDB;
+
+create table users (
+    active bit,
+    id bigint not null auto_increment,
+    phone varchar(20),
+    firstName varchar(25) not null,
+    lastName varchar(25) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table products
+   add constraint UK_g05b34hk21vqruiiv8215qt3x unique (nameProduct);
+
+alter table role
+   add constraint UK_iltw2vrgq1270elvuerhmwumf unique (nameRole);
+
+alter table users
+   add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table cart_items
+   add constraint FKpcttvuq4mxppo8sxggjtn5i2c
+   foreign key (cart_id)
+   references carts (idCart);
+
+alter table cart_items
+   add constraint FK1re40cjegsfvw58xrkdp6bac6
+   foreign key (product_id)
+   references products (idProduct);
+
+alter table carts
+   add constraint FKb5o626f86h46m4s7ms6ginnop
+   foreign key (user_id)
+   references users (id);
+
+alter table order_items
+   add constraint FKbioxgbv59vetrxe0ejfubep1w
+   foreign key (order_id)
+   references orders (idOrder);
+
+alter table order_items
+   add constraint FKocimc7dtr037rh4ls4l95nlfi
+   foreign key (product_id)
+   references products (idProduct);
+
+alter table orders
+   add constraint FK32ql8ubntj5uh44ph9659tiih
+   foreign key (user_id)
+   references users (id);
+
+alter table productdigital
+   add constraint FKh7q9uvwm2kd9luncvixafc71a
+   foreign key (idProduct)
+   references products (idProduct);
+
+alter table productphysical
+   add constraint FK6yjye9gpvj2tijrtgbkcyafi6
+   foreign key (idProduct)
+   references products (idProduct);
+
+alter table user_roles
+   add constraint FKrhfovtciq1l558cw6udg0h0d3
+   foreign key (role_id)
+   references role (idRole);
+
+alter table user_roles
+   add constraint FKhfh9dx7w3ubf1co1vdev94g3f
+   foreign key (user_id)
+   references users (id);
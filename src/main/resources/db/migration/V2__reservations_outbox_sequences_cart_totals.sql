@@ -0,0 +1,84 @@
+-- Cambios de esquema posteriores a V1: reservas de stock, outbox de mails, generadores SEQUENCE para
+-- orders / order_items / cart_items, totales desnormalizados y lastModified del carrito.
+-- Corre igual sobre una base vacia que sobre una existente marcada en V1 con baseline-on-migrate.
+-- SQL compatible con MySQL 8 y H2 (MODE=MySQL).
+
+-- Reservas de stock
+create table stock_reservations (
+    amountReserved integer not null,
+    createdAt datetime(6) not null,
+    idReservation bigint not null,
+    order_id bigint,
+    product_id bigint not null,
+    statusReservation enum ('RESERVED','COMMITTED','RELEASED') not null,
+    primary key (idReservation)
+) engine=InnoDB;
+
+create index idx_stock_reservations_order on stock_reservations (order_id);
+
+-- Outbox de mails
+create table email_outbox (
+    attempts integer not null,
+    createdAt datetime(6) not null,
+    idEmail bigint not null,
+    lockedUntil datetime(6),
+    nextAttemptAt datetime(6) not null,
+    sentAt datetime(6),
+    lastError varchar(500),
+    body TEXT not null,
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    statusEmail enum ('PENDING','SENDING','SENT','FAILED') not null,
+    primary key (idEmail)
+) engine=InnoDB;
+
+create index idx_email_outbox_status_next on email_outbox (statusEmail, nextAttemptAt);
+
+-- Los generadores SEQUENCE (pooled, allocationSize = 50) se emulan en MySQL con tablas de una fila.
+-- Las tablas que ya tenian filas de IDENTITY arrancan en MAX(id) + 51: el primer bloque del optimizador
+-- pooled queda despues de MAX(id) y no reasigna ids existentes. Las columnas siguen con auto_increment,
+-- que acepta el id explicito que manda Hibernate.
+create table order_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into order_seq select COALESCE(MAX(idOrder), 0) + 51 from orders;
+
+create table order_item_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into order_item_seq select COALESCE(MAX(idOrderItem), 0) + 51 from order_items;
+
+create table cart_item_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into cart_item_seq select COALESCE(MAX(idCartItem), 0) + 51 from cart_items;
+
+create table stock_reservation_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into stock_reservation_seq values ( 1 );
+
+create table email_outbox_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into email_outbox_seq values ( 1 );
+
+-- Historial de ordenes por usuario
+create index idx_orders_user_purchase_date on orders (user_id, purchaseDateOrder);
+
+-- Totales desnormalizados del carrito, calculados desde los items existentes
+alter table carts add column totalCart decimal(12,2) not null default 0;
+alter table carts add column itemCount integer not null default 0;
+alter table carts add column lastModified datetime(6);
+
+UPDATE carts SET
+    totalCart = COALESCE((SELECT SUM(ci.priceCartItem * ci.amountCartItem) FROM cart_items ci WHERE ci.cart_id = carts.idCart), 0),
+    itemCount = (SELECT COUNT(*) FROM cart_items ci WHERE ci.cart_id = carts.idCart);
+
+-- Carritos anteriores a lastModified: se toma la fecha de creacion
+UPDATE carts SET lastModified = creationDate WHERE lastModified IS NULL;
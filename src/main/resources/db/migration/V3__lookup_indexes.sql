@@ -0,0 +1,55 @@
+-- Indices para las columnas que filtran los DAOs, categoria normalizada y unicidad de producto por carrito.
+-- SQL compatible con MySQL 8 y H2 (MODE=MySQL).
+
+-- orders
+CREATE INDEX idx_orders_status ON orders (orderStatus);
+CREATE INDEX idx_orders_payment_status ON orders (paymentStatus);
+CREATE INDEX idx_orders_purchase_date ON orders (purchaseDateOrder);
+
+-- order_items
+CREATE INDEX idx_order_items_product ON order_items (product_id);
+
+-- products: category en minusculas para que la busqueda por categoria use indice
+ALTER TABLE products ADD COLUMN categoryNormalized VARCHAR(50);
+UPDATE products SET categoryNormalized = LOWER(TRIM(category)) WHERE category IS NOT NULL;
+CREATE INDEX idx_products_category_normalized ON products (categoryNormalized);
+
+-- carts
+CREATE INDEX idx_carts_user_active ON carts (user_id, active);
+CREATE INDEX idx_carts_active_creation ON carts (active, creationDate);
+CREATE INDEX idx_carts_creation_date ON carts (creationDate);
+
+-- cart_items: antes de la restriccion unica se unen las lineas duplicadas en la de menor id, sumando
+-- cantidades y precio de linea (igual que CartItemService al agregar un producto que ya esta), y se borra el resto.
+-- Las tablas derivadas con GROUP BY se materializan y evitan el error 1093 de MySQL al leer la misma tabla.
+UPDATE cart_items SET
+    amountCartItem = (
+        SELECT merged.amount FROM (
+            SELECT MIN(idCartItem) AS keep_id, SUM(amountCartItem) AS amount
+            FROM cart_items GROUP BY cart_id, product_id HAVING COUNT(*) > 1
+        ) merged WHERE merged.keep_id = cart_items.idCartItem
+    ),
+    priceCartItem = (
+        SELECT merged.price FROM (
+            SELECT MIN(idCartItem) AS keep_id, SUM(priceCartItem) AS price
+            FROM cart_items GROUP BY cart_id, product_id HAVING COUNT(*) > 1
+        ) merged WHERE merged.keep_id = cart_items.idCartItem
+    )
+WHERE idCartItem IN (
+    SELECT keep_id FROM (
+        SELECT MIN(idCartItem) AS keep_id FROM cart_items GROUP BY cart_id, product_id HAVING COUNT(*) > 1
+    ) duplicated
+);
+
+DELETE FROM cart_items
+WHERE idCartItem NOT IN (
+    SELECT keep_id FROM (
+        SELECT MIN(idCartItem) AS keep_id FROM cart_items GROUP BY cart_id, product_id
+    ) keepers
+);
+ALTER TABLE cart_items ADD CONSTRAINT uk_cart_items_cart_product UNIQUE (cart_id, product_id);
+
+-- Los totales desnormalizados se recalculan por si se borraron duplicados
+UPDATE carts SET
+    totalCart = COALESCE((SELECT SUM(ci.priceCartItem * ci.amountCartItem) FROM cart_items ci WHERE ci.cart_id = carts.idCart), 0),
+    itemCount = (SELECT COUNT(*) FROM cart_items ci WHERE ci.cart_id = carts.idCart);
@@ -0,0 +1,9 @@
+-- Revision compartida del catalogo para los ETag de los listados de productos (ver CatalogVersion)
+create table catalog_revision (
+    idRevision bigint not null,
+    revision bigint not null,
+    lastModified datetime(6) not null,
+    primary key (idRevision)
+) engine=InnoDB;
+
+insert into catalog_revision (idRevision, revision, lastModified) values (1, 1, CURRENT_TIMESTAMP(6));
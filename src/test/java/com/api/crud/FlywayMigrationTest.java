@@ -0,0 +1,83 @@
+package com.api.crud;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Corre todas las migraciones sobre una H2 vacia en modo MySQL y levanta el contexto con ddl-auto=validate:
+// si una entidad no coincide con el esquema migrado, Hibernate corta el arranque y el test falla.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:flyway;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true"
+})
+class FlywayMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrationsApplyAndMatchEntities() {
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("4");
+    }
+
+    @Test
+    void lookupIndexesMigrationCreatesCartItemUniqueConstraint() {
+        Integer constraints = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS WHERE UPPER(CONSTRAINT_NAME) = 'UK_CART_ITEMS_CART_PRODUCT'",
+                Integer.class);
+        assertThat(constraints).isEqualTo(1);
+    }
+
+    // Base con el esquema previo a Flyway (V1) y datos: las migraciones siguientes crean lo que falta y completan los datos
+    @Test
+    void upgradesAPopulatedBaselineDatabase() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:flyway_upgrade;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+        legacy.update("INSERT INTO users (id, firstName, lastName, email, password, active) VALUES (7, 'Ana', 'Diaz', 'ana@test.com', 'x', true)");
+        legacy.update("INSERT INTO products (idProduct, nameProduct, product_type, priceProduct, category, active) VALUES (3, 'Mate', 'PHYSICAL', 5.00, ' Kitchen ', true)");
+        legacy.update("INSERT INTO productphysical (idProduct, stockProduct) VALUES (3, 10)");
+        legacy.update("INSERT INTO carts (idCart, user_id, active, creationDate) VALUES (4, 7, true, DATE '2026-01-10')");
+        legacy.update("INSERT INTO cart_items (idCartItem, cart_id, product_id, amountCartItem, priceCartItem) VALUES (120, 4, 3, 2, 5.00)");
+        // Lineas duplicadas del mismo producto: V3 las une antes de crear la restriccion unica
+        legacy.update("INSERT INTO carts (idCart, user_id, active, creationDate) VALUES (5, 7, true, DATE '2026-01-12')");
+        legacy.update("INSERT INTO cart_items (idCartItem, cart_id, product_id, amountCartItem, priceCartItem) VALUES (130, 5, 3, 2, 10.00)");
+        legacy.update("INSERT INTO cart_items (idCartItem, cart_id, product_id, amountCartItem, priceCartItem) VALUES (131, 5, 3, 1, 5.00)");
+        legacy.update("INSERT INTO cart_items (idCartItem, cart_id, product_id, amountCartItem, priceCartItem) VALUES (132, 5, 3, 4, 20.00)");
+        legacy.update("INSERT INTO orders (idOrder, user_id, totalOrder, purchaseDateOrder, orderStatus, paymentStatus) " +
+                "VALUES (300, 7, 10.00, TIMESTAMP '2026-01-11 10:00:00', 'PENDING', 'PENDING')");
+
+        MigrateResult result = Flyway.configure().dataSource(dataSource).load().migrate();
+
+        assertThat(result.targetSchemaVersion).isEqualTo("4");
+        assertThat(legacy.queryForObject("SELECT totalCart FROM carts WHERE idCart = 4", BigDecimal.class)).isEqualByComparingTo("10.00");
+        assertThat(legacy.queryForObject("SELECT itemCount FROM carts WHERE idCart = 4", Integer.class)).isEqualTo(1);
+        assertThat(legacy.queryForObject("SELECT COUNT(*) FROM carts WHERE lastModified IS NULL", Integer.class)).isZero();
+        assertThat(legacy.queryForList("SELECT idCartItem FROM cart_items WHERE cart_id = 5", Long.class)).containsExactly(130L);
+        assertThat(legacy.queryForObject("SELECT amountCartItem FROM cart_items WHERE idCartItem = 130", Integer.class)).isEqualTo(7);
+        assertThat(legacy.queryForObject("SELECT priceCartItem FROM cart_items WHERE idCartItem = 130", BigDecimal.class)).isEqualByComparingTo("35.00");
+        assertThat(legacy.queryForObject("SELECT itemCount FROM carts WHERE idCart = 5", Integer.class)).isEqualTo(1);
+        assertThat(legacy.queryForObject("SELECT amountCartItem FROM cart_items WHERE idCartItem = 120", Integer.class)).isEqualTo(2);
+        assertThat(legacy.queryForObject("SELECT categoryNormalized FROM products WHERE idProduct = 3", String.class)).isEqualTo("kitchen");
+        assertThat(legacy.queryForObject("SELECT next_val FROM order_seq", Long.class)).isGreaterThan(300);
+        assertThat(legacy.queryForObject("SELECT next_val FROM cart_item_seq", Long.class)).isGreaterThan(120);
+        assertThat(legacy.queryForObject("SELECT COUNT(*) FROM email_outbox", Integer.class)).isZero();
+        assertThat(legacy.queryForObject("SELECT COUNT(*) FROM stock_reservations", Integer.class)).isZero();
+    }
+}
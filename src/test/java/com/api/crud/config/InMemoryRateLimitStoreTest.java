@@ -0,0 +1,47 @@
+package com.api.crud.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimitStoreTest {
+
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore(1_000, Duration.ofMinutes(1));
+
+    @Test
+    void rejectsOnceCapacityIsSpent() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.tryConsume("ip:1", 3, Duration.ofMinutes(1))).isZero();
+        }
+        // Sin tokens: devuelve la espera hasta el proximo (~20s con 3 por minuto)
+        assertThat(store.tryConsume("ip:1", 3, Duration.ofMinutes(1)))
+                .isPositive()
+                .isLessThanOrEqualTo(Duration.ofSeconds(20).toNanos());
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        assertThat(store.tryConsume("email:a@x.com", 1, Duration.ofMinutes(1))).isZero();
+        assertThat(store.tryConsume("email:a@x.com", 1, Duration.ofMinutes(1))).isPositive();
+        assertThat(store.tryConsume("email:b@x.com", 1, Duration.ofMinutes(1))).isZero();
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    void waitTimeDoesNotConsume() {
+        assertThat(store.waitTime("email:c@x.com", 1, Duration.ofMinutes(1))).isZero();
+        assertThat(store.tryConsume("email:c@x.com", 1, Duration.ofMinutes(1))).isZero();
+        assertThat(store.waitTime("email:c@x.com", 1, Duration.ofMinutes(1))).isPositive();
+        assertThat(store.waitTime("email:c@x.com", 1, Duration.ofMinutes(1))).isPositive();
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        assertThat(store.tryConsume("ip:2", 1, Duration.ofMillis(100))).isZero();
+        assertThat(store.tryConsume("ip:2", 1, Duration.ofMillis(100))).isPositive();
+        Thread.sleep(150);
+        assertThat(store.tryConsume("ip:2", 1, Duration.ofMillis(100))).isZero();
+    }
+}
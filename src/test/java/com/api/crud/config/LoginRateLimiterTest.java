@@ -0,0 +1,53 @@
+package com.api.crud.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimiterTest {
+
+    // 5 intentos por IP por minuto, 2 fallidos por email cada 15 minutos
+    private final LoginRateLimiter limiter = new LoginRateLimiter(
+            new InMemoryRateLimitStore(1_000, Duration.ofMinutes(1)), new SimpleMeterRegistry(),
+            true, 5, 60, 2, 900);
+
+    @Test
+    void successfulAttemptsDoNotSpendTheEmailBucket() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire("10.0.0." + i, "victim@x.com")).isZero();
+        }
+    }
+
+    @Test
+    void failedCredentialsLockTheEmailForEveryIp() {
+        assertThat(limiter.tryAcquire("10.0.0.1", "Victim@x.com")).isZero();
+        limiter.recordFailure("Victim@x.com");
+        assertThat(limiter.tryAcquire("10.0.0.2", "victim@x.com ")).isZero();
+        limiter.recordFailure("victim@x.com ");
+
+        assertThat(limiter.tryAcquire("10.0.0.3", "victim@x.com")).isPositive();
+        assertThat(limiter.tryAcquire("10.0.0.3", "other@x.com")).isZero();
+    }
+
+    @Test
+    void ipBucketCountsEveryAttempt() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("10.0.0.9", "user" + i + "@x.com")).isZero();
+        }
+        assertThat(limiter.tryAcquire("10.0.0.9", "user6@x.com")).isBetween(1L, 12L);
+    }
+
+    @Test
+    void disabledLimiterNeverRejects() {
+        LoginRateLimiter disabled = new LoginRateLimiter(
+                new InMemoryRateLimitStore(1_000, Duration.ofMinutes(1)), new SimpleMeterRegistry(),
+                false, 1, 60, 1, 900);
+        disabled.recordFailure("a@x.com");
+        disabled.recordFailure("a@x.com");
+        assertThat(disabled.tryAcquire("10.0.0.1", "a@x.com")).isZero();
+        assertThat(disabled.tryAcquire("10.0.0.1", "a@x.com")).isZero();
+    }
+}
@@ -0,0 +1,34 @@
+package com.api.crud.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestIdFilterTest {
+
+    private final RequestIdFilter filter = new RequestIdFilter();
+
+    @Test
+    void keepsAWellFormedRequestId() throws Exception {
+        assertThat(filter("trace-01.AB_c")).isEqualTo("trace-01.AB_c");
+    }
+
+    @Test
+    void replacesRequestIdsWithUnsafeCharacters() throws Exception {
+        for (String unsafe : new String[]{"abc\r\nforged log line", "a\"b", "id with spaces", "", "x".repeat(65)}) {
+            String requestId = filter(unsafe);
+            assertThat(requestId).isNotEqualTo(unsafe).matches("[0-9a-f-]{36}");
+        }
+    }
+
+    private String filter(String header) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products/ShowProducts");
+        request.addHeader(RequestIdFilter.REQUEST_ID_HEADER, header);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getHeader(RequestIdFilter.REQUEST_ID_HEADER);
+    }
+}
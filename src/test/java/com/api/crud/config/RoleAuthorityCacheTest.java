@@ -0,0 +1,33 @@
+package com.api.crud.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoleAuthorityCacheTest {
+
+    private final RoleAuthorityCache cache = new RoleAuthorityCache();
+
+    @Test
+    void sameCombinationSharesOneImmutableList() {
+        List<GrantedAuthority> first = cache.authoritiesFor(List.of("CLIENT", "ADMIN"));
+        List<GrantedAuthority> again = cache.authoritiesFor(List.of("CLIENT", "ADMIN"));
+        List<GrantedAuthority> reordered = cache.authoritiesFor(List.of("ADMIN", "CLIENT"));
+
+        assertThat(again).isSameAs(first);
+        assertThat(reordered).isSameAs(first);
+        assertThat(first).extracting(GrantedAuthority::getAuthority).containsExactly("ADMIN", "CLIENT");
+        assertThat(first).isUnmodifiable();
+    }
+
+    @Test
+    void invalidateAllRebuildsTheLists() {
+        List<GrantedAuthority> before = cache.authoritiesFor(List.of("CLIENT"));
+        cache.invalidateAll();
+
+        assertThat(cache.authoritiesFor(List.of("CLIENT"))).isNotSameAs(before).isEqualTo(before);
+    }
+}
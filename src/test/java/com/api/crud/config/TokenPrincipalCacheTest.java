@@ -0,0 +1,99 @@
+package com.api.crud.config;
+
+import com.api.crud.config.TokenPrincipalCache.CachedPrincipal;
+import com.api.crud.repositories.UserDao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenPrincipalCacheTest {
+
+    private final TokenPrincipalCache cache = new TokenPrincipalCache(100, 30);
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cachedTokenSkipsTheActiveFlagLookup() throws Exception {
+        JWTUtil jwtUtil = new JWTUtil();
+        UserDao userDao = mock(UserDao.class);
+        when(userDao.findActiveFlagByEmail("hit@test.com")).thenReturn(Optional.of(true));
+        JWTFilter filter = new JWTFilter(jwtUtil, userDao, cache, new RoleAuthorityCache(), new SimpleMeterRegistry());
+        String token = jwtUtil.generateToken("hit@test.com", List.of("CLIENT"));
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader("Authorization", "Bearer " + token);
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("hit@test.com");
+            SecurityContextHolder.clearContext();
+        }
+
+        verify(userDao, times(1)).findActiveFlagByEmail("hit@test.com");
+        assertThat(cache.getCache().stats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void entryNeverOutlivesTheTokenExpiration() {
+        cache.put("expiring", principal("soon@test.com", System.currentTimeMillis() + 5_000));
+        cache.put("long-lived", principal("later@test.com", System.currentTimeMillis() + 3_600_000));
+        cache.put("expired", principal("gone@test.com", System.currentTimeMillis() - 1_000));
+
+        assertThat(expiresAfterSeconds("expiring")).isLessThanOrEqualTo(5);
+        assertThat(expiresAfterSeconds("long-lived")).isBetween(29L, 30L);
+        assertThat(cache.get("expired")).isEmpty();
+    }
+
+    @Test
+    void invalidateUserEvictsEveryTokenOfThatUser() {
+        long expiration = System.currentTimeMillis() + 600_000;
+        cache.put("web", principal("Same@Test.com", expiration));
+        cache.put("mobile", principal("same@test.com", expiration));
+        cache.put("other", principal("other@test.com", expiration));
+
+        cache.invalidateUser("SAME@test.com");
+
+        assertThat(cache.get("web")).isEmpty();
+        assertThat(cache.get("mobile")).isEmpty();
+        assertThat(cache.get("other")).isPresent();
+
+        // Un token nuevo del mismo usuario vuelve a quedar indexado
+        cache.put("web", principal("same@test.com", expiration));
+        cache.invalidateUser("same@test.com");
+        assertThat(cache.get("web")).isEmpty();
+    }
+
+    private CachedPrincipal principal(String email, long expiration) {
+        return new CachedPrincipal(email, List.of("CLIENT"), new Date(expiration), true);
+    }
+
+    private long expiresAfterSeconds(String token) {
+        CachedPrincipal cached = cache.get(token).orElseThrow();
+        String hash = cache.getCache().asMap().entrySet().stream()
+                .filter(entry -> entry.getValue() == cached)
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElseThrow();
+        return cache.getCache().policy().expireVariably().orElseThrow()
+                .getExpiresAfter(hash, TimeUnit.SECONDS)
+                .orElseThrow();
+    }
+}
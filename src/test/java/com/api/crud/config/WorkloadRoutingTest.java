@@ -0,0 +1,81 @@
+package com.api.crud.config;
+
+import com.api.crud.models.entity.Order;
+import com.api.crud.models.entity.OrderItem;
+import com.api.crud.models.entity.Product;
+import com.api.crud.models.entity.ProductPhysical;
+import com.api.crud.models.entity.UserModel;
+import com.api.crud.models.enums.OrderStatus;
+import com.api.crud.models.enums.PaymentStatus;
+import com.api.crud.repositories.OrderDao;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Un metodo @ReportingQuery tiene que tomar la conexion del pool reporting y dejar libre el de OLTP
+@SpringBootTest
+class WorkloadRoutingTest {
+
+    @Autowired
+    private OrderDao orderDao;
+
+    @Autowired
+    @Qualifier("oltpDataSource")
+    private HikariDataSource oltpDataSource;
+
+    @Autowired
+    @Qualifier("reportingDataSource")
+    private HikariDataSource reportingDataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void reportingQueryRunsOnReportingPool() {
+        transactionTemplate.executeWithoutResult(status -> {
+            UserModel user = new UserModel(0, "Route", "User", "route" + System.nanoTime() + "@test.com", "12345678", "secret");
+            entityManager.persist(user);
+            Product product = new ProductPhysical("R-" + System.nanoTime() % 100000, new BigDecimal("5.00"),
+                    "desc", "img", "cat", 10, "address");
+            entityManager.persist(product);
+            Order order = new Order(null, user, new ArrayList<>(), new BigDecimal("5.00"), LocalDateTime.now());
+            order.setPaymentStatus(PaymentStatus.PENDING);
+            order.setOrderStatus(OrderStatus.PENDING);
+            order.getItemsOrder().add(new OrderItem(null, order, product, 1, product.getPriceProduct()));
+            entityManager.persist(order);
+        });
+
+        List<int[]> activeWhileStreaming = new ArrayList<>();
+        orderDao.streamOrderExportRows(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), 10,
+                row -> activeWhileStreaming.add(new int[]{
+                        activeConnections(reportingDataSource),
+                        activeConnections(oltpDataSource)}));
+
+        assertThat(activeWhileStreaming).isNotEmpty();
+        assertThat(activeWhileStreaming).allSatisfy(active -> {
+            assertThat(active[0]).isEqualTo(1);
+            assertThat(active[1]).isZero();
+        });
+        assertThat(WorkloadRoutingDataSource.current()).isEqualTo(WorkloadRoutingDataSource.Workload.OLTP);
+    }
+
+    // Hikari arranca el pool con la primera conexion: sin MXBean todavia no se uso
+    private int activeConnections(HikariDataSource dataSource) {
+        return dataSource.getHikariPoolMXBean() != null ? dataSource.getHikariPoolMXBean().getActiveConnections() : 0;
+    }
+}
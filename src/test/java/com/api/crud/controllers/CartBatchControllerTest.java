@@ -0,0 +1,88 @@
+package com.api.crud.controllers;
+
+import com.api.crud.models.entity.Cart;
+import com.api.crud.models.entity.ProductPhysical;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// POST /cart/batch/{cartId}: responde el carrito actualizado con los totales ya recalculados
+@SpringBootTest
+class CartBatchControllerTest {
+
+    @Autowired
+    private CartController cartController;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private MockMvc mockMvc;
+
+    private Long cartId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        // Standalone: se prueba el manejo HTTP del controller sin la cadena de seguridad
+        mockMvc = MockMvcBuilders.standaloneSetup(cartController).build();
+        transactionTemplate.executeWithoutResult(status -> {
+            ProductPhysical product = new ProductPhysical("CartBatch-" + System.nanoTime(), new BigDecimal("4.00"),
+                    "desc", "img", "batch", 10, "address");
+            entityManager.persist(product);
+            Cart cart = new Cart();
+            cart.setCreationDate(LocalDate.now());
+            entityManager.persist(cart);
+            productId = product.getIdProduct();
+            cartId = cart.getIdCart();
+        });
+    }
+
+    @Test
+    void batchReturnsTheUpdatedCart() throws Exception {
+        mockMvc.perform(post("/cart/batch/{cartId}", cartId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"upserts\":[{\"productId\":" + productId + ",\"amount\":1}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.idCart").value(cartId))
+                .andExpect(jsonPath("$.itemCount").value(1))
+                .andExpect(jsonPath("$.itemsCart[0].productId").value(productId))
+                .andExpect(jsonPath("$.totalCart").value(4.0));
+
+        mockMvc.perform(post("/cart/batch/{cartId}", cartId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"removals\":[" + productId + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemCount").value(0))
+                .andExpect(jsonPath("$.itemsCart").isEmpty())
+                .andExpect(jsonPath("$.totalCart").value(0));
+    }
+
+    @Test
+    void invalidBatchIsABadRequest() throws Exception {
+        mockMvc.perform(post("/cart/batch/{cartId}", cartId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"upserts\":[{\"amount\":1}]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/cart/batch/{cartId}", -1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clear\":true}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,140 @@
+package com.api.crud.controllers;
+
+import com.api.crud.models.entity.Cart;
+import com.api.crud.models.entity.Order;
+import com.api.crud.models.entity.OrderItem;
+import com.api.crud.models.entity.Product;
+import com.api.crud.models.entity.ProductPhysical;
+import com.api.crud.models.entity.UserModel;
+import com.api.crud.models.enums.OrderStatus;
+import com.api.crud.models.enums.PaymentStatus;
+import com.api.crud.repositories.OrderDao;
+import com.api.crud.services.CartService;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Un request que primero lee por OLTP y despues corre un @ReportingQuery: la segunda consulta tiene que salir
+// del pool reporting. Con open-in-view la sesion del request retiene la conexion OLTP de la primera lectura
+// y el reporte correria sobre ella
+@SpringBootTest
+class MixedRequestRoutingTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private MockMvc mockMvc;
+
+    private Long cartId;
+
+    @BeforeEach
+    void setUp() {
+        // Contexto web completo: se aplican los interceptores de MVC del contexto (el de open-in-view si estuviera activo)
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        transactionTemplate.executeWithoutResult(status -> {
+            UserModel user = new UserModel(0, "Mixed", "User", "mixed" + System.nanoTime() + "@test.com", "12345678", "secret");
+            entityManager.persist(user);
+            Product product = new ProductPhysical("Mixed-" + System.nanoTime() % 100000, new BigDecimal("5.00"),
+                    "desc", "img", "cat", 10, "address");
+            entityManager.persist(product);
+            Order order = new Order(null, user, new ArrayList<>(), new BigDecimal("5.00"), LocalDateTime.now());
+            order.setPaymentStatus(PaymentStatus.PENDING);
+            order.setOrderStatus(OrderStatus.PENDING);
+            order.getItemsOrder().add(new OrderItem(null, order, product, 1, product.getPriceProduct()));
+            entityManager.persist(order);
+            Cart cart = new Cart();
+            cart.setCreationDate(LocalDate.now());
+            entityManager.persist(cart);
+            cartId = cart.getIdCart();
+        });
+    }
+
+    @Test
+    void reportingQueryAfterAnOltpReadUsesTheReportingPool() throws Exception {
+        mockMvc.perform(get("/test/mixed-request/{cartId}", cartId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reportingActive", not(empty())))
+                .andExpect(jsonPath("$.reportingActive", everyItem(equalTo(1))))
+                .andExpect(jsonPath("$.oltpActive", everyItem(equalTo(0))));
+    }
+
+    @TestConfiguration
+    static class MixedRequestConfig {
+
+        @Bean
+        MixedRequestController mixedRequestController(CartService cartService, OrderDao orderDao,
+                                                      @Qualifier("oltpDataSource") HikariDataSource oltpDataSource,
+                                                      @Qualifier("reportingDataSource") HikariDataSource reportingDataSource) {
+            return new MixedRequestController(cartService, orderDao, oltpDataSource, reportingDataSource);
+        }
+    }
+
+    @RestController
+    static class MixedRequestController {
+
+        private final CartService cartService;
+        private final OrderDao orderDao;
+        private final HikariDataSource oltpDataSource;
+        private final HikariDataSource reportingDataSource;
+
+        MixedRequestController(CartService cartService, OrderDao orderDao,
+                               HikariDataSource oltpDataSource, HikariDataSource reportingDataSource) {
+            this.cartService = cartService;
+            this.orderDao = orderDao;
+            this.oltpDataSource = oltpDataSource;
+            this.reportingDataSource = reportingDataSource;
+        }
+
+        // Conexiones activas de cada pool mientras llegan las filas del reporte
+        @GetMapping("/test/mixed-request/{cartId}")
+        public Map<String, List<Integer>> mixedRequest(@PathVariable Long cartId) {
+            cartService.findCartById(cartId).orElseThrow();
+            List<Integer> reportingActive = new ArrayList<>();
+            List<Integer> oltpActive = new ArrayList<>();
+            orderDao.streamOrderExportRows(LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), 10, row -> {
+                reportingActive.add(activeConnections(reportingDataSource));
+                oltpActive.add(activeConnections(oltpDataSource));
+            });
+            return Map.of("reportingActive", reportingActive, "oltpActive", oltpActive);
+        }
+
+        private int activeConnections(HikariDataSource dataSource) {
+            return dataSource.getHikariPoolMXBean() != null ? dataSource.getHikariPoolMXBean().getActiveConnections() : 0;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.api.crud.controllers;
+
+import com.api.crud.models.entity.ProductPhysical;
+import com.api.crud.services.ProductService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// If-None-Match sobre los listados del catalogo: 304 sin consultar la base mientras no haya escrituras
+@SpringBootTest(properties = "catalog.version.refresh-ms=60000")
+class ProductCatalogConditionalGetTest {
+
+    @Autowired
+    private ProductController productController;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private MockMvc mockMvc;
+
+    private String nameProduct;
+
+    @BeforeEach
+    void setUp() {
+        // Standalone: se prueba el manejo HTTP del controller sin la cadena de seguridad
+        mockMvc = MockMvcBuilders.standaloneSetup(productController).build();
+        nameProduct = "Etag-" + System.nanoTime() % 100000;
+        transactionTemplate.executeWithoutResult(status -> entityManager.persist(new ProductPhysical(nameProduct,
+                new BigDecimal("10.00"), "desc", "img", "cat", 5, "address")));
+    }
+
+    @Test
+    void matchingEtagReturnsNotModifiedWithoutQuerying() throws Exception {
+        MvcResult first = mockMvc.perform(get("/products/ShowProducts"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0, must-revalidate, private"))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"");
+        assertThat(first.getResponse().getHeaders(HttpHeaders.ETAG)).hasSize(1);
+
+        Statistics statistics = statistics();
+        statistics.clear();
+        mockMvc.perform(get("/products/ShowProducts").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get("/products/FindInStock").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void productWriteChangesTheEtag() throws Exception {
+        String etag = mockMvc.perform(get("/products/FindByCategory/cat"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        productService.updateProductStock(nameProduct, 7);
+
+        MvcResult after = mockMvc.perform(get("/products/FindByCategory/cat").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(after.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+        assertThat(after.getResponse().getContentAsString()).contains(nameProduct);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,85 @@
+package com.api.crud.repositories;
+
+import com.api.crud.models.entity.Cart;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Las escrituras del barrido repiten el criterio de abandono: un carrito tocado despues de leer los ids no se toca
+@SpringBootTest
+class CartDaoSweepTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.now().minusDays(30);
+    private static final LocalDate CREATED_BEFORE = CUTOFF.toLocalDate();
+
+    @Autowired
+    private CartDao cartDao;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void deactivateSkipsCartsTouchedAfterTheRead() {
+        Long stale = seedStaleCart(true);
+        Long touched = seedStaleCart(true);
+        List<Long> ids = List.of(stale, touched);
+        assertThat(cartDao.findStaleCartIds(true, CREATED_BEFORE, CUTOFF, stale - 1, 10)).containsAll(ids);
+
+        cartDao.recalculateTotals(touched);
+
+        assertThat(cartDao.deactivateCarts(ids, CREATED_BEFORE, CUTOFF)).isEqualTo(1);
+        assertThat(isActive(stale)).isFalse();
+        assertThat(isActive(touched)).isTrue();
+    }
+
+    @Test
+    void purgeSkipsCartsTouchedOrReactivatedAfterTheRead() {
+        Long stale = seedStaleCart(false);
+        Long touched = seedStaleCart(false);
+        Long reactivated = seedStaleCart(false);
+        List<Long> ids = List.of(stale, touched, reactivated);
+
+        cartDao.recalculateTotals(touched);
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createNativeQuery("UPDATE carts SET active = true WHERE idCart = :id")
+                .setParameter("id", reactivated)
+                .executeUpdate());
+
+        assertThat(cartDao.purgeCarts(ids, CREATED_BEFORE, CUTOFF)).isEqualTo(1);
+        assertThat(cartDao.findCartById(stale)).isEmpty();
+        assertThat(cartDao.findCartById(touched)).isPresent();
+        assertThat(cartDao.findCartById(reactivated)).isPresent();
+    }
+
+    private Long seedStaleCart(boolean active) {
+        return transactionTemplate.execute(status -> {
+            Cart cart = new Cart();
+            cart.setActive(active);
+            cart.setCreationDate(LocalDate.now());
+            entityManager.persist(cart);
+            entityManager.flush();
+            entityManager.createNativeQuery("UPDATE carts SET creationDate = :created, lastModified = :modified WHERE idCart = :id")
+                    .setParameter("created", LocalDate.now().minusDays(60))
+                    .setParameter("modified", LocalDateTime.now().minusDays(60))
+                    .setParameter("id", cart.getIdCart())
+                    .executeUpdate();
+            return cart.getIdCart();
+        });
+    }
+
+    private boolean isActive(Long cartId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> entityManager.find(Cart.class, cartId).isActive()));
+    }
+}
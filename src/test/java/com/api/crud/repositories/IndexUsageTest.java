@@ -0,0 +1,42 @@
+package com.api.crud.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// EXPLAIN en H2 de las consultas de los DAOs: el plan tiene que nombrar el indice declarado en la entidad
+@SpringBootTest
+class IndexUsageTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void orderLookupsUseIndexes() {
+        assertThat(plan("SELECT * FROM orders WHERE orderStatus = 'PENDING'")).contains("IDX_ORDERS_STATUS");
+        assertThat(plan("SELECT * FROM orders WHERE paymentStatus = 'PENDING'")).contains("IDX_ORDERS_PAYMENT_STATUS");
+        assertThat(plan("SELECT * FROM orders WHERE purchaseDateOrder BETWEEN TIMESTAMP '2024-01-01 00:00:00' AND TIMESTAMP '2024-02-01 00:00:00'"))
+                .contains("IDX_ORDERS_PURCHASE_DATE");
+        assertThat(plan("SELECT * FROM order_items WHERE product_id = 1")).contains("IDX_ORDER_ITEMS_PRODUCT");
+    }
+
+    @Test
+    void productCategoryLookupUsesNormalizedColumnIndex() {
+        assertThat(plan("SELECT * FROM products WHERE categoryNormalized = 'books'")).contains("IDX_PRODUCTS_CATEGORY_NORMALIZED");
+    }
+
+    @Test
+    void cartLookupsUseIndexes() {
+        assertThat(plan("SELECT * FROM carts WHERE user_id = 1 AND active = TRUE")).contains("IDX_CARTS_USER_ACTIVE");
+        assertThat(plan("SELECT * FROM carts WHERE creationDate BETWEEN DATE '2024-01-01' AND DATE '2024-02-01'"))
+                .contains("IDX_CARTS_CREATION_DATE");
+        assertThat(plan("SELECT * FROM cart_items WHERE cart_id = 1 AND product_id = 2")).contains("UK_CART_ITEMS_CART_PRODUCT");
+    }
+
+    private String plan(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class)).toUpperCase();
+    }
+}
@@ -0,0 +1,116 @@
+package com.api.crud.services;
+
+import com.api.crud.DTO.CartBatchDTO;
+import com.api.crud.DTO.CartBatchItemDTO;
+import com.api.crud.DTO.CartDTO;
+import com.api.crud.DTO.CartItemDTO;
+import com.api.crud.models.entity.Cart;
+import com.api.crud.models.entity.CartItem;
+import com.api.crud.models.entity.Product;
+import com.api.crud.models.entity.ProductPhysical;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// applyBatch: altas, modificaciones y bajas en una transaccion, con los totales recalculados al final
+@SpringBootTest
+class CartServiceBatchTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Long cartId;
+    private Long kept;
+    private Long removed;
+    private Long added;
+
+    @BeforeEach
+    void setUp() {
+        kept = seedProduct("10.00");
+        removed = seedProduct("5.00");
+        added = seedProduct("2.50");
+        cartId = transactionTemplate.execute(status -> {
+            Cart cart = new Cart();
+            cart.setCreationDate(LocalDate.now());
+            entityManager.persist(cart);
+            entityManager.persist(new CartItem(null, cart, entityManager.find(Product.class, kept), 1, new BigDecimal("10.00")));
+            entityManager.persist(new CartItem(null, cart, entityManager.find(Product.class, removed), 2, new BigDecimal("10.00")));
+            return cart.getIdCart();
+        });
+    }
+
+    @Test
+    void upsertsAndRemovalsAreAppliedAndTotalsRecalculated() {
+        cartService.applyBatch(cartId, new CartBatchDTO(false,
+                List.of(new CartBatchItemDTO(kept, 3), new CartBatchItemDTO(added, 1)),
+                List.of(removed)));
+
+        CartDTO cart = cartService.findCartById(cartId).orElseThrow();
+        Map<Long, CartItemDTO> items = byProduct(cart);
+        assertThat(items).containsOnlyKeys(kept, added);
+        assertThat(items.get(kept).getAmountCartItem()).isEqualTo(3);
+        assertThat(items.get(kept).getPriceCartItem()).isEqualByComparingTo("30.00");
+        assertThat(items.get(added).getAmountCartItem()).isEqualTo(1);
+        assertTotalsMatchItems(cart);
+    }
+
+    @Test
+    void zeroAmountRemovesAndClearStartsFromAnEmptyCart() {
+        cartService.applyBatch(cartId, new CartBatchDTO(false, List.of(new CartBatchItemDTO(kept, 0)), List.of()));
+        assertThat(byProduct(cartService.findCartById(cartId).orElseThrow())).containsOnlyKeys(removed);
+
+        cartService.applyBatch(cartId, new CartBatchDTO(true, List.of(new CartBatchItemDTO(added, 2)), List.of()));
+        CartDTO cart = cartService.findCartById(cartId).orElseThrow();
+        assertThat(byProduct(cart)).containsOnlyKeys(added);
+        assertTotalsMatchItems(cart);
+    }
+
+    @Test
+    void unknownProductRollsBackTheWholeBatch() {
+        assertThatThrownBy(() -> cartService.applyBatch(cartId, new CartBatchDTO(false,
+                List.of(new CartBatchItemDTO(-1L, 1)), List.of(removed))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(byProduct(cartService.findCartById(cartId).orElseThrow())).containsOnlyKeys(kept, removed);
+    }
+
+    private void assertTotalsMatchItems(CartDTO cart) {
+        BigDecimal expected = cart.getItemsCart().stream()
+                .map(item -> item.getPriceCartItem().multiply(BigDecimal.valueOf(item.getAmountCartItem())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(cart.getTotalCart()).isEqualByComparingTo(expected);
+        assertThat(cart.getItemCount()).isEqualTo(cart.getItemsCart().size());
+    }
+
+    private Map<Long, CartItemDTO> byProduct(CartDTO cart) {
+        return cart.getItemsCart().stream().collect(Collectors.toMap(CartItemDTO::getProductId, item -> item));
+    }
+
+    private Long seedProduct(String price) {
+        return transactionTemplate.execute(status -> {
+            ProductPhysical product = new ProductPhysical("Batch-" + System.nanoTime(), new BigDecimal(price),
+                    "desc", "img", "batch", 10, "address");
+            entityManager.persist(product);
+            return product.getIdProduct();
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package com.api.crud.services;
+
+import com.api.crud.DTO.ProductDTO;
+import com.api.crud.models.entity.CatalogRevision;
+import com.api.crud.repositories.CatalogRevisionDao;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// La version sale de la fila compartida: un bump de otra instancia se ve en la proxima relectura
+class CatalogVersionTest {
+
+    private final SharedRevision shared = new SharedRevision();
+
+    @Test
+    void revisionWrittenByAnotherInstanceChangesTheEtagAndClearsTheCache() {
+        ProductCatalogCache catalogCache = new ProductCatalogCache(100, 10, 10);
+        CatalogVersion version = new CatalogVersion(shared, catalogCache, Runnable::run, 0);
+        String etag = version.etag(version.current());
+        catalogCache.getById(1L, () -> Optional.of(new ProductDTO()));
+
+        shared.increment();
+
+        assertThat(version.etag(version.current())).isNotEqualTo(etag);
+        assertThat(catalogCache.getByIdCache().getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void snapshotIsReusedWithinTheRefreshInterval() {
+        CatalogVersion version = new CatalogVersion(shared, new ProductCatalogCache(100, 10, 10), Runnable::run, 60000);
+        version.current();
+        shared.increment();
+        version.current();
+
+        assertThat(shared.reads).isEqualTo(1);
+    }
+
+    @Test
+    void stockChangesAreCoalescedIntoOneBump() {
+        CatalogVersion version = new CatalogVersion(shared, new ProductCatalogCache(100, 10, 10), Runnable::run, 60000);
+        long before = version.current().version();
+
+        version.markStockChanged();
+        version.markStockChanged();
+        version.bumpIfStockChanged();
+        version.bumpIfStockChanged();
+
+        assertThat(version.current().version()).isEqualTo(before + 1);
+    }
+
+    private static class SharedRevision implements CatalogRevisionDao {
+        private long revision = 1;
+        private int reads;
+
+        @Override
+        public Optional<CatalogRevision> findCurrent() {
+            reads++;
+            return Optional.of(new CatalogRevision(CatalogRevision.SINGLETON_ID, revision, LocalDateTime.now()));
+        }
+
+        @Override
+        public void increment() {
+            revision++;
+        }
+    }
+}
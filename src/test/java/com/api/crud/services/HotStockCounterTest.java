@@ -0,0 +1,163 @@
+package com.api.crud.services;
+
+import com.api.crud.models.entity.ProductPhysical;
+import com.api.crud.repositories.ProductDao;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class HotStockCounterTest {
+
+    private static final int BATCH = 4;
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Long productId;
+    private String nameProduct;
+    private HotStockCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        // nameProduct es unico y de hasta 30 caracteres
+        nameProduct = "Hot-" + UUID.randomUUID().toString().substring(0, 18);
+        productId = transactionTemplate.execute(status -> {
+            ProductPhysical product = new ProductPhysical(nameProduct,
+                    new BigDecimal("10.00"), "desc", "img", "cat", 10, "address");
+            entityManager.persist(product);
+            return product.getIdProduct();
+        });
+        counter = new HotStockCounter(productDao, catalogVersion, transactionManager, Set.of(productId), BATCH, 2);
+    }
+
+    @Test
+    void neverTakesMoreThanTheDatabaseHas() {
+        assertThat(takeAndCommit(8)).isTrue();
+        // Quedan 2 en la base: ni el lote ni la cantidad exacta alcanzan
+        assertThat(takeAndCommit(3)).isFalse();
+        assertThat(takeAndCommit(2)).isTrue();
+        assertThat(stock()).isZero();
+        assertThat(takeAndCommit(1)).isFalse();
+    }
+
+    @Test
+    void rollbackOfTheRefillingTransactionLeavesNoSurplus() {
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(counter.tryTake(productId, 1)).isTrue();
+            status.setRollbackOnly();
+        });
+
+        counter.flush();
+        assertThat(stock()).isEqualTo(10);
+    }
+
+    @Test
+    void rollbackOfATakeFromTheAllotmentGivesItBack() {
+        assertThat(takeAndCommit(1)).isTrue();
+        assertThat(stock()).isEqualTo(10 - BATCH);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(counter.tryTake(productId, 2)).isTrue();
+            status.setRollbackOnly();
+        });
+
+        // Sobrante del lote (3) mas lo devuelto por el rollback: solo falta la unidad confirmada
+        counter.flush();
+        assertThat(stock()).isEqualTo(9);
+    }
+
+    @Test
+    void flushReturnsTheSurplusToTheDatabase() {
+        assertThat(takeAndCommit(1)).isTrue();
+        assertThat(takeAndCommit(1)).isTrue();
+        assertThat(stock()).isEqualTo(10 - BATCH);
+
+        counter.flush();
+        assertThat(stock()).isEqualTo(8);
+        counter.flush();
+        assertThat(stock()).isEqualTo(8);
+    }
+
+    @Test
+    void adminStockOfZeroIsNotRefilledByTheFlush() {
+        assertThat(takeAndCommit(1)).isTrue();
+        assertThat(stock()).isEqualTo(10 - BATCH);
+
+        // 3 unidades del lote siguen en memoria; el ajuste absoluto las descarta
+        assertThat(counter.overwrite(productId, () -> productDao.updateProductStock(nameProduct, 0))).isTrue();
+        counter.flush();
+
+        assertThat(stock()).isZero();
+        assertThat(takeAndCommit(1)).isFalse();
+    }
+
+    @Test
+    void refillCommittedAfterAnOverwriteDoesNotAddItsSurplus() {
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(counter.tryTake(productId, 1)).isTrue();
+            // Ajuste en otra transaccion antes del commit del lote (3 de sobrante pendientes)
+            counter.overwrite(productId, () -> true);
+        });
+        counter.flush();
+
+        assertThat(stock()).isEqualTo(10 - BATCH);
+    }
+
+    @Test
+    void takesUnitsSpreadAcrossStripesBeforeRefilling() throws InterruptedException {
+        assertThat(takeAndCommit(1)).isTrue();
+        giveBackFromTheOtherStripe(2);
+
+        // 3 en un stripe y 2 en el otro: se juntan sin pedir otro lote a la base
+        assertThat(takeAndCommit(5)).isTrue();
+        assertThat(stock()).isEqualTo(10 - BATCH);
+    }
+
+    private void giveBackFromTheOtherStripe(int amount) throws InterruptedException {
+        long mainStripe = Thread.currentThread().threadId() % 2;
+        AtomicBoolean done = new AtomicBoolean();
+        while (!done.get()) {
+            Thread thread = new Thread(() -> {
+                if (Thread.currentThread().threadId() % 2 != mainStripe) {
+                    counter.giveBack(productId, amount);
+                    done.set(true);
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+    }
+
+    private boolean takeAndCommit(int amount) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> counter.tryTake(productId, amount)));
+    }
+
+    private Integer stock() {
+        return transactionTemplate.execute(status -> entityManager.find(ProductPhysical.class, productId).getStockProduct());
+    }
+}
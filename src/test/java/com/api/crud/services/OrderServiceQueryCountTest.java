@@ -0,0 +1,106 @@
+package com.api.crud.services;
+
+import com.api.crud.DTO.OrderDTO;
+import com.api.crud.models.entity.Order;
+import com.api.crud.models.entity.OrderItem;
+import com.api.crud.models.entity.Product;
+import com.api.crud.models.entity.ProductPhysical;
+import com.api.crud.models.entity.UserModel;
+import com.api.crud.models.enums.OrderStatus;
+import com.api.crud.models.enums.PaymentStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Regresion del N+1 en los listados de ordenes: la cantidad de sentencias no depende de cuantas ordenes haya
+@SpringBootTest
+class OrderServiceQueryCountTest {
+
+    private static final int ORDERS = 30;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private String email;
+
+    @BeforeEach
+    void seedOrders() {
+        email = "orders" + System.nanoTime() + "@test.com";
+        transactionTemplate.executeWithoutResult(status -> {
+            UserModel user = new UserModel(0, "Test", "User", email, "12345678", "secret");
+            entityManager.persist(user);
+
+            List<Product> products = new ArrayList<>();
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                Product product = new ProductPhysical("P" + i + "-" + System.nanoTime() % 100000, new BigDecimal("10.00"),
+                        "desc", "img", "cat", 100, "address");
+                entityManager.persist(product);
+                products.add(product);
+            }
+
+            for (int o = 0; o < ORDERS; o++) {
+                Order order = new Order(null, user, new ArrayList<>(), new BigDecimal("30.00"), LocalDateTime.now());
+                order.setPaymentStatus(PaymentStatus.PENDING);
+                order.setOrderStatus(OrderStatus.PENDING);
+                for (Product product : products) {
+                    order.getItemsOrder().add(new OrderItem(null, order, product, 1, product.getPriceProduct()));
+                }
+                entityManager.persist(order);
+            }
+        });
+    }
+
+    @Test
+    void getOrdersByUserEmailDoesNotIssueOneQueryPerOrder() {
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        List<OrderDTO> orders = orderService.getOrdersByUserEmail(email);
+
+        assertThat(orders).hasSize(ORDERS);
+        assertThat(orders).allSatisfy(order -> {
+            assertThat(order.getUserEmail()).isEqualTo(email);
+            assertThat(order.getItemsOrder()).hasSize(ITEMS_PER_ORDER);
+        });
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void getAllOrdersDoesNotIssueOneQueryPerOrder() {
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        List<OrderDTO> orders = orderService.getAllOrders();
+
+        assertThat(orders).hasSizeGreaterThanOrEqualTo(ORDERS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,77 @@
+package com.api.crud.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingService service;
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void rejectsWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        service = new PasswordHashingService(blockingEncoder(started), new SimpleMeterRegistry(), 1, 1, 5_000);
+
+        // Un hilo ocupado y un lugar de cola: el tercer pedido se rechaza sin esperar
+        CompletableFuture.runAsync(() -> service.matches("a", "a"));
+        started.await();
+        CompletableFuture.runAsync(() -> service.matches("b", "b"));
+        Thread.sleep(100);
+
+        assertThatThrownBy(() -> service.matches("c", "c")).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void rejectsWhenWaitExceedsTimeout() {
+        service = new PasswordHashingService(blockingEncoder(new CountDownLatch(1)), new SimpleMeterRegistry(), 1, 10, 50);
+
+        assertThatThrownBy(() -> service.matches("a", "a")).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void detectsHashesBelowConfiguredStrength() {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(6), new SimpleMeterRegistry(), 1, 10, 5_000);
+        String weak = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(service.matches("secret", weak)).isTrue();
+        assertThat(service.needsRehash(weak)).isTrue();
+        assertThat(service.needsRehash(service.encode("secret"))).isFalse();
+    }
+
+    private PasswordEncoder blockingEncoder(CountDownLatch started) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.api.crud.services;
+
+import com.api.crud.DTO.ProductDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCatalogCacheTest {
+
+    private final ProductCatalogCache cache = new ProductCatalogCache(100, 10, 10);
+
+    private final ProductDTO mate = new ProductDTO(1L, "Mate", BigDecimal.TEN, "desc", "img", "Kitchen");
+    private final ProductDTO other = new ProductDTO(2L, "Other", BigDecimal.ONE, "desc", "img", "Garden");
+
+    @Test
+    void evictByIdDropsTheNameAndCategoryEntries() {
+        cache.getById(1L, () -> Optional.of(mate));
+        cache.getByName("Mate", () -> Optional.of(mate));
+        cache.getByCategory(" kitchen ", () -> List.of(mate));
+        cache.getByCategory("garden", () -> List.of(other));
+
+        cache.evictProduct(1L, null);
+
+        assertThat(cache.getByIdCache().getIfPresent(1L)).isNull();
+        assertThat(cache.getByNameCache().getIfPresent("Mate")).isNull();
+        assertThat(cache.getByCategoryCache().getIfPresent("kitchen")).isNull();
+        assertThat(cache.getByCategoryCache().getIfPresent("garden")).isNotNull();
+    }
+
+    @Test
+    void evictByNameFindsAProductOnlyCachedInACategoryList() {
+        cache.getByCategory("KITCHEN", () -> List.of(mate));
+
+        cache.evictProduct(null, "Mate");
+
+        assertThat(cache.getByCategoryCache().getIfPresent("kitchen")).isNull();
+    }
+
+    @Test
+    void categoryKeysIgnoreTheDefaultLocale() {
+        cache.getByCategory("TOOLS", () -> List.of());
+        assertThat(cache.getByCategoryCache().getIfPresent("tools")).isNotNull();
+    }
+}
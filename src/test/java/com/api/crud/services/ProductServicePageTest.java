@@ -0,0 +1,84 @@
+package com.api.crud.services;
+
+import com.api.crud.DTO.CursorPageDTO;
+import com.api.crud.DTO.ProductDTO;
+import com.api.crud.models.entity.Product;
+import com.api.crud.models.entity.ProductPhysical;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Paginacion keyset por precio con precios NULL: ninguna fila se repite ni se pierde y los NULL van al final
+@SpringBootTest
+class ProductServicePageTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seedProducts() {
+        transactionTemplate.executeWithoutResult(status -> Arrays.asList(null, "3.00", null, "1.00", "3.00", null)
+                .forEach(price -> entityManager.persist(new ProductPhysical("Page-" + UUID.randomUUID().toString().substring(0, 18),
+                        price == null ? null : new BigDecimal(price), "desc", "img", "page", 1, "address"))));
+    }
+
+    @Test
+    void ascendingWalksEveryRowWithNullPricesLast() {
+        assertWalk("asc");
+    }
+
+    @Test
+    void descendingWalksEveryRowWithNullPricesLast() {
+        assertWalk("desc");
+    }
+
+    @Test
+    void sortedByNameIgnoresCase() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.persist(new ProductPhysical("bcase", BigDecimal.ONE, "desc", "img", "case", 1, "address"));
+            entityManager.persist(new ProductPhysical("Acase", BigDecimal.ONE, "desc", "img", "case", 1, "address"));
+            entityManager.persist(new ProductPhysical("Ccase", BigDecimal.ONE, "desc", "img", "case", 1, "address"));
+        });
+
+        List<String> names = productService.findProductsSortedByName().stream()
+                .map(Product::getNameProduct)
+                .filter(name -> name.endsWith("case"))
+                .toList();
+        assertThat(names).containsExactly("Acase", "bcase", "Ccase");
+    }
+
+    private void assertWalk(String direction) {
+        List<ProductDTO> all = productService.showProducts();
+        List<ProductDTO> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<ProductDTO> page = productService.findProductsPage("price", direction, cursor, 2);
+            walked.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(walked).extracting(ProductDTO::getIdProduct)
+                .doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(all.stream().map(ProductDTO::getIdProduct).toList());
+        int firstNull = walked.stream().map(ProductDTO::getPriceProduct).toList().indexOf(null);
+        assertThat(walked.subList(firstNull, walked.size())).allMatch(product -> product.getPriceProduct() == null);
+    }
+}
@@ -0,0 +1,141 @@
+package com.api.crud.services;
+
+import com.api.crud.models.entity.ProductPhysical;
+import com.api.crud.models.entity.StockReservation;
+import com.api.crud.models.entity.CatalogRevision;
+import com.api.crud.models.enums.ReservationStatus;
+import com.api.crud.models.enums.StockUpdate;
+import com.api.crud.repositories.CatalogRevisionDao;
+import com.api.crud.repositories.ProductDao;
+import com.api.crud.repositories.StockReservationDao;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class StockReservationServiceTest {
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private StockReservationDao reservationDao;
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Autowired
+    private CatalogRevisionDao revisionDao;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void reserveAllRejectsOversellAndRollsBackEveryLine() {
+        Long plenty = seedProduct(5);
+        Long scarce = seedProduct(1);
+        long orderId = System.nanoTime();
+        Map<Long, Integer> amounts = new LinkedHashMap<>();
+        amounts.put(plenty, 2);
+        amounts.put(scarce, 3);
+
+        assertThatThrownBy(() -> reservationService.reserveAll(amounts, orderId))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(stockOf(plenty)).isEqualTo(5);
+        assertThat(stockOf(scarce)).isEqualTo(1);
+        assertThat(reservationDao.findReservationsByOrderId(orderId, ReservationStatus.RESERVED)).isEmpty();
+    }
+
+    @Test
+    void releaseReturnsStockOnce() {
+        Long productId = seedProduct(5);
+        StockReservation reservation = reservationService.reserve(productId, 3, System.nanoTime());
+        assertThat(stockOf(productId)).isEqualTo(2);
+
+        assertThat(reservationService.release(reservation.getIdReservation())).isTrue();
+        assertThat(reservationService.release(reservation.getIdReservation())).isFalse();
+        assertThat(stockOf(productId)).isEqualTo(5);
+    }
+
+    @Test
+    void commitForOrderKeepsStockTakenAndBlocksLaterRelease() {
+        Long first = seedProduct(4);
+        Long second = seedProduct(4);
+        long orderId = System.nanoTime();
+        reservationService.reserveAll(Map.of(first, 1, second, 2), orderId);
+
+        reservationService.commitForOrder(orderId);
+        reservationService.releaseForOrder(orderId);
+
+        assertThat(reservationDao.findReservationsByOrderId(orderId, ReservationStatus.COMMITTED)).hasSize(2);
+        assertThat(List.of(stockOf(first), stockOf(second))).containsExactly(3, 2);
+    }
+
+    // Las filas afectadas del UPDATE condicional dicen si el stock cruzo cero, sin leer el stock
+    @Test
+    void stockUpdatesReportWhenStockCrossesZero() {
+        Long productId = seedProduct(3);
+
+        assertThat(reserveStock(productId, 2)).isEqualTo(StockUpdate.UPDATED);
+        assertThat(reserveStock(productId, 2)).isEqualTo(StockUpdate.REJECTED);
+        assertThat(reserveStock(productId, 1)).isEqualTo(StockUpdate.CROSSED_ZERO);
+        assertThat(releaseStock(productId, 1)).isEqualTo(StockUpdate.CROSSED_ZERO);
+        assertThat(releaseStock(productId, 1)).isEqualTo(StockUpdate.UPDATED);
+        assertThat(stockOf(productId)).isEqualTo(2);
+    }
+
+    // El bump del catalogo corre despues del commit del pedido, fuera de su transaccion
+    @Test
+    void sellingOutBumpsTheCatalogRevisionAfterCommit() throws InterruptedException {
+        Long productId = seedProduct(1);
+        long before = revision();
+
+        reservationService.reserveAll(Map.of(productId, 1), System.nanoTime());
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (revision() <= before && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(revision()).isGreaterThan(before);
+    }
+
+    private StockUpdate reserveStock(Long productId, int amount) {
+        return transactionTemplate.execute(status -> productDao.reserveStock(productId, amount));
+    }
+
+    private StockUpdate releaseStock(Long productId, int amount) {
+        return transactionTemplate.execute(status -> productDao.releaseStock(productId, amount));
+    }
+
+    private long revision() {
+        return revisionDao.findCurrent().map(CatalogRevision::getRevision).orElse(0L);
+    }
+
+    private Long seedProduct(int stock) {
+        return transactionTemplate.execute(status -> {
+            ProductPhysical product = new ProductPhysical("Stock-" + System.nanoTime() % 1_000_000,
+                    new BigDecimal("10.00"), "desc", "img", "cat", stock, "address");
+            entityManager.persist(product);
+            return product.getIdProduct();
+        });
+    }
+
+    private Integer stockOf(Long productId) {
+        return transactionTemplate.execute(status -> entityManager.find(ProductPhysical.class, productId).getStockProduct());
+    }
+}